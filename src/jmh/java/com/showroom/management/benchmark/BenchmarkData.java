@@ -0,0 +1,82 @@
+package com.showroom.management.benchmark;
+
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic sample rows shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final int OUTLETS = 4;
+    static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    static User salesRep(Long id, String username, String outlet) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setFullName("Sales Rep " + id);
+        user.setRole(User.Role.SALES);
+        user.setOutlet(outlet);
+        user.setIsActive(true);
+        return user;
+    }
+
+    static List<SalesEntry> salesEntries(int count) {
+        User rep = salesRep(1L, "sales1", "Outlet 1");
+        List<SalesEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SalesEntry entry = new SalesEntry();
+            entry.setId((long) i + 1);
+            entry.setSalesRep(rep);
+            entry.setOutlet(outlet(i));
+            entry.setDateTime(FIRST_DAY.atStartOfDay().plusMinutes(17L * i));
+            entry.setBillNumber("B" + (100000 + i));
+            entry.setAmount(amount(i));
+            entry.setPaymentType(i % 3 == 0 ? SalesEntry.PaymentType.ACCOUNT : SalesEntry.PaymentType.CASH);
+            entry.setCreatedBy("manager1");
+            entry.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    static List<ExpenseEntry> expenseEntries(int count) {
+        User rep = salesRep(1L, "sales1", "Outlet 1");
+        ExpenseEntry.ExpenseType[] types = ExpenseEntry.ExpenseType.values();
+        List<ExpenseEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExpenseEntry entry = new ExpenseEntry();
+            entry.setId((long) i + 1);
+            entry.setOutlet(outlet(i));
+            entry.setDate(FIRST_DAY.plusDays(i % 365));
+            entry.setType(types[i % types.length]);
+            entry.setAmount(amount(i));
+            entry.setDescription("Expense " + i);
+            entry.setAdvanceTo(entry.getType() == ExpenseEntry.ExpenseType.ADVANCE ? rep : null);
+            entry.setCreatedBy("manager1");
+            entry.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    static String outlet(int i) {
+        return "Outlet " + (i % OUTLETS + 1);
+    }
+
+    static BigDecimal amount(int i) {
+        return BigDecimal.valueOf(500 + (i * 37L) % 9500, 2);
+    }
+}
@@ -0,0 +1,62 @@
+package com.showroom.management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.showroom.management.dto.ExpenseEntryDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO mapping and JSON serialization of a listing response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "5000"})
+    public int rows;
+
+    private List<SalesEntry> salesEntries;
+    private List<ExpenseEntry> expenseEntries;
+    private List<SalesEntryDTO> salesDtos;
+
+    // Same settings as the Spring Boot default ObjectMapper
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Setup
+    public void setUp() {
+        salesEntries = BenchmarkData.salesEntries(rows);
+        expenseEntries = BenchmarkData.expenseEntries(rows);
+        salesDtos = salesEntries.stream().map(SalesEntryDTO::fromEntity).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void salesEntryFromEntity(Blackhole blackhole) {
+        for (SalesEntry entry : salesEntries) {
+            blackhole.consume(SalesEntryDTO.fromEntity(entry));
+        }
+    }
+
+    @Benchmark
+    public void expenseEntryFromEntity(Blackhole blackhole) {
+        for (ExpenseEntry entry : expenseEntries) {
+            blackhole.consume(ExpenseEntryDTO.fromEntity(entry));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeSalesList() throws Exception {
+        return objectMapper.writeValueAsBytes(salesDtos);
+    }
+}
@@ -0,0 +1,54 @@
+package com.showroom.management.benchmark;
+
+import com.showroom.management.entity.User;
+import com.showroom.management.security.JwtUtils;
+import com.showroom.management.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "myVerySecretKeyForShowroomManagement123456789ABCDEFGHIJKLMNOP");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 10000);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        User user = BenchmarkData.salesRep(1L, "sales1", "Outlet 1");
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public JwtUtils.VerifiedToken verifyCachedToken() {
+        return jwtUtils.verify(token);
+    }
+
+    @Benchmark
+    public String parseToken() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+}
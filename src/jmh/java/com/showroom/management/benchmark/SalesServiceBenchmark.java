@@ -0,0 +1,133 @@
+package com.showroom.management.benchmark;
+
+import com.showroom.management.DressShowroomManagementApplication;
+import com.showroom.management.dto.CursorPage;
+import com.showroom.management.dto.DashboardStatsDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.entity.User;
+import com.showroom.management.repository.SalesDailyRollupRepository;
+import com.showroom.management.repository.UserRepository;
+import com.showroom.management.service.OutletDictionary;
+import com.showroom.management.service.SalesService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing and dashboard queries against an embedded H2 database
+ * (PostgreSQL compatibility mode) seeded with a year of bills.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class SalesServiceBenchmark {
+
+    private static final LocalDateTime YEAR_FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime YEAR_TO = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+    private static final LocalDateTime MONTH_FROM = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final LocalDateTime MONTH_TO = LocalDateTime.of(2024, 6, 30, 23, 59, 59);
+
+    @Param({"50000"})
+    public int salesRows;
+
+    private ConfigurableApplicationContext context;
+    private SalesService salesService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DressShowroomManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments take precedence over application.yml
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--app.events.sink=none",
+                        "--logging.level.root=WARN");
+
+        seed(context.getBean(JdbcTemplate.class), context.getBean(UserRepository.class));
+        salesService = context.getBean(SalesService.class);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, UserRepository userRepository) {
+        List<User> salesReps = userRepository.findByRole(User.Role.SALES);
+        OutletDictionary outletDictionary = context.getBean(OutletDictionary.class);
+        int minutesPerBill = Math.max(1, 366 * 24 * 60 / salesRows);
+
+        // Created by migration V3 only; no periods are closed, so they stay empty
+        jdbcTemplate.execute("CREATE TABLE sales_period_snapshots (outlet_id smallint NOT NULL, " +
+                "period_start date NOT NULL, period_end date NOT NULL, sales_rep_id bigint NOT NULL, " +
+                "payment_type varchar(255) NOT NULL, total_amount numeric(14,2) NOT NULL, " +
+                "transaction_count bigint NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE expense_period_snapshots (outlet_id smallint NOT NULL, " +
+                "period_start date NOT NULL, period_end date NOT NULL, type varchar(255) NOT NULL, " +
+                "advance_to_id bigint, total_amount numeric(14,2) NOT NULL, entry_count bigint NOT NULL)");
+
+        List<Object[]> rows = new ArrayList<>(salesRows);
+        for (int i = 0; i < salesRows; i++) {
+            User rep = salesReps.get(i % salesReps.size());
+            rows.add(new Object[]{
+                    rep.getId(),
+                    outletDictionary.idOf(rep.getOutlet()),
+                    YEAR_FROM.plusMinutes((long) minutesPerBill * i),
+                    "B" + i,
+                    BenchmarkData.amount(i),
+                    (i % 3 == 0 ? SalesEntry.PaymentType.ACCOUNT : SalesEntry.PaymentType.CASH).name(),
+                    "manager1",
+                    LocalDateTime.now()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sales_entries " +
+                "(id, sales_rep_id, outlet_id, date_time, bill_number, amount, payment_type, created_by, created_at) " +
+                "VALUES (NEXT VALUE FOR sales_entries_seq, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        // SalesRollupService.rebuild takes a PostgreSQL table lock, so fill the rollup directly
+        SalesDailyRollupRepository rollupRepository = context.getBean(SalesDailyRollupRepository.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+                rollupRepository.rebuildRange(YEAR_FROM, YEAR_TO.plusDays(1)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<SalesEntryDTO> filteredSalesOutletMonth() {
+        return salesService.getFilteredSales("Outlet 1", MONTH_FROM, MONTH_TO, null, null, null, 100);
+    }
+
+    @Benchmark
+    public CursorPage<SalesEntryDTO> filteredSalesAllOutletsYear() {
+        return salesService.getFilteredSales(null, YEAR_FROM, YEAR_TO, null, null, null, 100);
+    }
+
+    @Benchmark
+    public CursorPage<SalesEntryDTO> filteredSalesByRep() {
+        return salesService.getFilteredSales(null, YEAR_FROM, YEAR_TO, "sales3",
+                SalesEntry.PaymentType.CASH, null, 100);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO dashboardStatsAllOutletsYear() {
+        return salesService.getDashboardStats(null, YEAR_FROM, YEAR_TO);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO dashboardStatsOutletPartialDays() {
+        return salesService.getDashboardStats("Outlet 2", MONTH_FROM.plusHours(10), MONTH_TO.minusHours(3));
+    }
+}
@@ -0,0 +1,146 @@
+package com.showroom.management.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes listings as {@code application/vnd.showroom.columns+json}: one array
+ * per property instead of one object per row, e.g.
+ * <pre>
+ * {"count":2,"columns":{"id":[7,6],"outlet":{"values":["Outlet 1"],"codes":[0,0]}}}
+ * </pre>
+ * Text columns with few distinct values (reps, outlets, payment types,
+ * creators) are sent as a dictionary plus one index per row.
+ *
+ * Only used when a client asks for this type explicitly; plain JSON stays
+ * the default.
+ */
+public class ColumnarJsonHttpMessageConverter extends AbstractHttpMessageConverter<Collection<?>> {
+
+    public static final MediaType COLUMNS_JSON = MediaType.parseMediaType("application/vnd.showroom.columns+json");
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(COLUMNS_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Wildcards (including the "any type" check used to list producible
+     * types) are left to the JSON converter, so this format is never picked
+     * for a client that did not name it.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && !mediaType.isWildcardType() && !mediaType.isWildcardSubtype()
+                && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response-only format", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> rows, HttpOutputMessage outputMessage) throws IOException {
+        List<JsonNode> nodes = new ArrayList<>(rows.size());
+        Set<String> names = new LinkedHashSet<>();
+        for (Object row : rows) {
+            JsonNode node = objectMapper.valueToTree(row);
+            nodes.add(node);
+            node.fieldNames().forEachRemaining(names::add);
+        }
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))) {
+            generator.writeStartObject();
+            generator.writeNumberField("count", nodes.size());
+            generator.writeObjectFieldStart("columns");
+            for (String name : names) {
+                List<JsonNode> column = new ArrayList<>(nodes.size());
+                for (JsonNode node : nodes) {
+                    JsonNode value = node.get(name);
+                    column.add(value != null ? value : NullNode.getInstance());
+                }
+                generator.writeFieldName(name);
+                writeColumn(generator, column);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeColumn(JsonGenerator generator, List<JsonNode> column) throws IOException {
+        Map<String, Integer> dictionary = dictionary(column);
+        if (dictionary == null) {
+            generator.writeStartArray();
+            for (JsonNode value : column) {
+                objectMapper.writeTree(generator, value);
+            }
+            generator.writeEndArray();
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("values");
+        for (String value : dictionary.keySet()) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("codes");
+        for (JsonNode value : column) {
+            if (value.isNull()) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(dictionary.get(value.asText()));
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    // Worth it only for text columns where values repeat, i.e. not ids or bill numbers
+    private static Map<String, Integer> dictionary(List<JsonNode> column) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (JsonNode value : column) {
+            if (value.isNull()) {
+                continue;
+            }
+            if (!value.isTextual()) {
+                return null;
+            }
+            dictionary.putIfAbsent(value.asText(), dictionary.size());
+            if (dictionary.size() > column.size() / 2) {
+                return null;
+            }
+        }
+        return dictionary.isEmpty() ? null : dictionary;
+    }
+}
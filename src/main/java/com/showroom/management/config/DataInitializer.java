@@ -1,32 +1,70 @@
 package com.showroom.management.config;
 
 import com.showroom.management.entity.User;
+import com.showroom.management.repository.SalesEntryRepository;
 import com.showroom.management.repository.UserRepository;
+import com.showroom.management.service.BillNumberIndex;
+import com.showroom.management.service.OutletDictionary;
+import com.showroom.management.service.PartitionMaintenanceService;
+import com.showroom.management.service.SalesLeaderboardService;
+import com.showroom.management.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
+    private static final String REBUILD_SALES_ROLLUP_ARG = "--rebuild-sales-rollup";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SalesEntryRepository salesEntryRepository;
+    private final SalesRollupService salesRollupService;
+    private final SalesLeaderboardService salesLeaderboardService;
+    private final BillNumberIndex billNumberIndex;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final OutletDictionary outletDictionary;
 
     @Override
     public void run(String... args) throws Exception {
+        partitionMaintenanceService.createUpcomingPartitions();
         initializeUsers();
+        initializeSalesIdSequence();
+        initializeSalesRollup(Arrays.asList(args).contains(REBUILD_SALES_ROLLUP_ARG));
+        salesLeaderboardService.refresh();
+        billNumberIndex.warm();
+    }
+
+    private void initializeSalesIdSequence() {
+        try {
+            salesEntryRepository.alignIdSequence();
+        } catch (DataAccessException e) {
+            log.warn("Could not align sales_entries_seq with existing ids: {}", e.getMessage());
+        }
+    }
+
+    private void initializeSalesRollup(boolean forceRebuild) {
+        // Backfill on first start after the rollup table was introduced
+        if (forceRebuild || (salesRollupService.isEmpty() && salesEntryRepository.count() > 0)) {
+            log.info("Rebuilding sales daily rollup...");
+            salesRollupService.rebuild(null, null);
+        }
     }
 
     private void initializeUsers() {
         if (userRepository.count() == 0) {
             log.info("Initializing default users...");
 
-            // Owner
-            createUser("admin", "admin814463", "Store Owner", User.Role.OWNER, "All Outlets");
+            // Owner, across all outlets
+            createUser("admin", "admin814463", "Store Owner", User.Role.OWNER, null);
 
             // Managers
             createUser("manager1", "manager123", "Manager One", User.Role.MANAGER, "Outlet 1");
@@ -52,7 +90,7 @@ public class DataInitializer implements CommandLineRunner {
         user.setPassword(passwordEncoder.encode(password));
         user.setFullName(fullName);
         user.setRole(role);
-        user.setOutlet(outlet);
+        user.setOutlet(outlet != null ? outletDictionary.register(outlet) : null);
         user.setIsActive(true);
         userRepository.save(user);
     }
@@ -0,0 +1,61 @@
+package com.showroom.management.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.showroom.management.entity.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Regions of the Hibernate second-level cache, held in a JCache manager of
+ * their own so they stay apart from the Spring caches.
+ *
+ * Entries expire after {@code app.entityCache.expireAfterWrite}, which bounds
+ * how long another instance can serve a user changed elsewhere. The
+ * update-timestamps region is what invalidates cached queries on writes, so
+ * it must outlive them and is neither bounded nor expired.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.entityCache.maximumSize:1000}") long maximumSize,
+                                              @Value("${app.entityCache.expireAfterWrite:5m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate"), getClass().getClassLoader());
+
+        for (String region : new String[]{
+                User.CACHE_REGION,
+                User.NATURAL_ID_CACHE_REGION,
+                User.QUERY_CACHE_REGION,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME}) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+            // Hibernate already stores disassembled copies
+            configuration.setStoreByValue(false);
+            cacheManager.createCache(region, configuration);
+        }
+
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
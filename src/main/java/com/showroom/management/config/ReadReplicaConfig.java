@@ -0,0 +1,74 @@
+package com.showroom.management.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured data source with primary and replica pools
+ * when {@code app.datasource.replica.url} is set (see {@link ReadReplicaRouting}).
+ * Without it the application keeps a single pool on {@code spring.datasource}.
+ *
+ * The pools are not beans of their own, so the statement counter and the
+ * JPA setup only ever see the routing data source.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig primaryPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariConfig replicaPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ReadReplicaRouting readReplicaRouting(DataSourceProperties properties,
+                                                 MeterRegistry meterRegistry,
+                                                 @Value("${app.datasource.replica.url}") String replicaUrl,
+                                                 @Value("${app.datasource.replica.username:}") String replicaUsername,
+                                                 @Value("${app.datasource.replica.password:}") String replicaPassword,
+                                                 @Value("${app.datasource.replica.maxLagMs:2000}") long maxLagMs,
+                                                 @Value("${app.datasource.replica.checkIntervalMs:1000}") long checkIntervalMs) {
+        HikariConfig primaryConfig = primaryPoolConfig();
+        primaryConfig.setPoolName("primary");
+        primaryConfig.setJdbcUrl(properties.determineUrl());
+        primaryConfig.setUsername(properties.determineUsername());
+        primaryConfig.setPassword(properties.determinePassword());
+        primaryConfig.setDriverClassName(properties.determineDriverClassName());
+        primaryConfig.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariConfig replicaConfig = replicaPoolConfig();
+        replicaConfig.setPoolName("replica");
+        replicaConfig.setJdbcUrl(replicaUrl);
+        replicaConfig.setUsername(replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername);
+        replicaConfig.setPassword(replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword);
+        replicaConfig.setDriverClassName(properties.determineDriverClassName());
+        replicaConfig.setReadOnly(true);
+        replicaConfig.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return new ReadReplicaRouting(new HikariDataSource(primaryConfig), new HikariDataSource(replicaConfig),
+                maxLagMs, checkIntervalMs, meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(ReadReplicaRouting readReplicaRouting) {
+        return new LazyConnectionDataSourceProxy(readReplicaRouting.dataSource());
+    }
+}
@@ -0,0 +1,139 @@
+package com.showroom.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and
+ * everything else to the primary.
+ *
+ * The replica's replay lag is checked every {@code app.datasource.replica.checkIntervalMs}.
+ * While it is above {@code maxLagMs}, cannot be measured, or a replica
+ * connection fails, read-only transactions use the primary as well. A server
+ * that is not in recovery (e.g. a second local database) counts as caught up.
+ *
+ * The routing decision is made when a transaction first runs a statement,
+ * so the data source handed to JPA must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReadReplicaRouting implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+    private final DataSource routingDataSource;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    // Milliseconds; NaN while the replica cannot be reached
+    private volatile double lagMs = Double.NaN;
+    private volatile boolean replicaUsable;
+
+    public ReadReplicaRouting(HikariDataSource primary, HikariDataSource replica,
+                              long maxLagMs, long checkIntervalMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+        this.primaryConnections = meterRegistry.counter("showroom.datasource.connections", "target", PRIMARY);
+        this.replicaConnections = meterRegistry.counter("showroom.datasource.connections", "target", REPLICA);
+        meterRegistry.gauge("showroom.datasource.replica.lag", this, routing -> routing.lagMs);
+        meterRegistry.gauge("showroom.datasource.replica.usable", this, routing -> routing.replicaUsable ? 1 : 0);
+
+        RoutingDataSource routing = new RoutingDataSource();
+        routing.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        this.routingDataSource = routing;
+    }
+
+    public DataSource dataSource() {
+        return routingDataSource;
+    }
+
+    /**
+     * Longest a read may lag behind a committed write: the lag allowed on the
+     * replica plus the time until the next check notices it is exceeded.
+     */
+    public long maxStalenessMs() {
+        return maxLagMs + checkIntervalMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.checkIntervalMs:1000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            lagMs = resultSet.wasNull() ? Double.NaN : lag;
+        } catch (SQLException e) {
+            lagMs = Double.NaN;
+            log.debug("Replica lag check failed: {}", e.getMessage());
+        }
+
+        boolean usable = !Double.isNaN(lagMs) && lagMs <= maxLagMs;
+        if (usable != replicaUsable) {
+            String lag = Double.isNaN(lagMs) ? "unknown" : Math.round(lagMs) + " ms";
+            if (usable) {
+                log.info("Read replica in use (lag {})", lag);
+            } else {
+                log.warn("Read replica not used (lag {}), reading from primary", lag);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    private class RoutingDataSource extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return replicaUsable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    ? REPLICA : PRIMARY;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (REPLICA.equals(determineCurrentLookupKey())) {
+                try {
+                    Connection connection = replica.getConnection();
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    // Until the next check finds it healthy again
+                    replicaUsable = false;
+                    log.warn("Replica connection failed, reading from primary: {}", e.getMessage());
+                }
+            }
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+}
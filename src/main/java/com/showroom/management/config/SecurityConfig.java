@@ -1,7 +1,9 @@
 package com.showroom.management.config;
 
+import com.showroom.management.dto.CursorPage;
 import com.showroom.management.security.JwtAuthenticationEntryPoint;
 import com.showroom.management.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -58,6 +60,9 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthenticationEntryPoint))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Async dispatches continue a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // PUBLIC: HTML pages (no authentication needed)
                         .requestMatchers("/", "/app", "/login", "/index").permitAll()
                         .requestMatchers("/css/**", "/js/**", "/assets/**", "/static/**").permitAll()
@@ -82,6 +87,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/users/**").hasAnyRole("OWNER", "MANAGER", "SALES")
                         .requestMatchers("/api/sales/**").hasAnyRole("OWNER", "MANAGER", "SALES")
                         .requestMatchers("/api/expenses/**").hasAnyRole("OWNER", "MANAGER")
+                        .requestMatchers("/api/analytics/**").hasAnyRole("OWNER", "MANAGER", "SALES")
+                        .requestMatchers("/api/periods/**").hasAnyRole("OWNER", "MANAGER")
+                        .requestMatchers("/api/stream/**").hasAnyRole("OWNER", "MANAGER", "SALES")
+                        .requestMatchers("/api/events/**").hasRole("OWNER")
 
                         // All other requests require authentication
                         .anyRequest().authenticated()
@@ -104,6 +113,7 @@ public class SecurityConfig {
 
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(CursorPage.NEXT_CURSOR_HEADER));
         configuration.setAllowCredentials(true);
 
         // Cache preflight requests for 1 hour
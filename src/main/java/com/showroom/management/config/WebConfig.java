@@ -1,12 +1,26 @@
 package com.showroom.management.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of the JSON converter, which would otherwise claim application/*+json
+        converters.add(0, new ColumnarJsonHttpMessageConverter(objectMapper));
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Static resources with caching
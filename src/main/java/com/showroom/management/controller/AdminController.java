@@ -0,0 +1,34 @@
+package com.showroom.management.controller;
+
+import com.showroom.management.dto.*;
+import com.showroom.management.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('OWNER')")
+public class AdminController {
+
+    private final SalesRollupService salesRollupService;
+
+    @PostMapping("/sales-rollup/rebuild")
+    public ResponseEntity<?> rebuildSalesRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        try {
+            int rows = salesRollupService.rebuild(fromDate, toDate);
+            return ResponseEntity.ok(new ApiResponse(true, "Sales rollup rebuilt successfully", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.showroom.management.controller;
+
+import com.showroom.management.dto.ApiResponse;
+import com.showroom.management.dto.PivotRequest;
+import com.showroom.management.dto.PivotResultDTO;
+import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.OutletDictionary;
+import com.showroom.management.service.PivotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AnalyticsController {
+
+    private final PivotService pivotService;
+
+    /**
+     * Owners may pick any outlet (none for all), managers
+     * always get their own outlet, and sales reps only their own sales.
+     */
+    @PostMapping("/pivot")
+    public ResponseEntity<?> pivot(@Valid @RequestBody PivotRequest request,
+                                   Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String userRole = userDetails.getRole().name();
+
+        String effectiveOutlet = request.getOutlet();
+        Long salesRepId = null;
+        if ("SALES".equals(userRole)) {
+            if (request.getSource() != PivotRequest.Source.SALES) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse(false, "Sales representatives can only analyse their own sales"));
+            }
+            effectiveOutlet = null;
+            salesRepId = userDetails.getId();
+        } else if (!"OWNER".equals(userRole)) {
+            effectiveOutlet = userDetails.getOutlet();
+        } else {
+            effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
+        }
+
+        try {
+            PivotResultDTO result = pivotService.pivot(request, effectiveOutlet, salesRepId);
+            return ResponseEntity.ok(new ApiResponse(true, "Pivot generated successfully", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
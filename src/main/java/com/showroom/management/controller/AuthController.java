@@ -3,6 +3,7 @@ package com.showroom.management.controller;
 import com.showroom.management.dto.*;
 import com.showroom.management.security.JwtUtils;
 import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.OutletDictionary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -40,7 +41,7 @@ public class AuthController {
                     userDetails.getUsername(),
                     userDetails.getFullName(),
                     userDetails.getRole(),
-                    userDetails.getOutlet(),
+                    OutletDictionary.label(userDetails.getOutlet()),
                     true
             );
 
@@ -0,0 +1,47 @@
+package com.showroom.management.controller;
+
+import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * ETag handling for GET endpoints whose response only changes when the
+ * outlet's sales or expenses do. The check runs before any query, so a
+ * matching {@code If-None-Match} is answered with 304 without touching the
+ * database.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+
+    // Browsers may keep the response but have to revalidate it on every use
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final DataVersionService dataVersionService;
+
+    /**
+     * Sets the ETag and cache headers; when this returns true the 304 has
+     * been sent and the handler should return null.
+     */
+    public boolean notModified(ServletWebRequest webRequest, UserDetailsImpl user, String outlet) {
+        HttpServletRequest request = webRequest.getRequest();
+        String etag = dataVersionService.etag(outlet,
+                user.getUsername(), user.getRole().name(), user.getOutlet(),
+                request.getRequestURI(), request.getQueryString(),
+                request.getHeader(HttpHeaders.ACCEPT));
+
+        // Set before the check so a 304 carries them too
+        HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,39 @@
+package com.showroom.management.controller;
+
+import com.showroom.management.dto.ApiResponse;
+import com.showroom.management.dto.DomainEventDTO;
+import com.showroom.management.service.DomainEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('OWNER')")
+public class EventController {
+
+    private final DomainEventService domainEventService;
+
+    /**
+     * Change feed of sales, expenses and users, oldest first. Start without
+     * {@code after}, then pass the id of the last event received; an empty
+     * list means there is nothing new yet.
+     */
+    @GetMapping
+    public ResponseEntity<?> getEvents(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<DomainEventDTO> events = domainEventService.getEvents(after, limit);
+            return ResponseEntity.ok(events);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
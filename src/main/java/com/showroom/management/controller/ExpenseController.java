@@ -2,16 +2,25 @@ package com.showroom.management.controller;
 
 import com.showroom.management.dto.*;
 import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.repository.ExpenseFilter;
 import com.showroom.management.security.UserDetailsImpl;
 import com.showroom.management.service.ExpenseService;
+import com.showroom.management.service.ExportService;
+import com.showroom.management.service.OutletDictionary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -22,7 +31,11 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('OWNER', 'MANAGER')")
 public class ExpenseController {
 
+    private static final MediaType CSV_MEDIA_TYPE = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final ExpenseService expenseService;
+    private final ExportService exportService;
+    private final ConditionalGet conditionalGet;
 
     @PostMapping
     public ResponseEntity<?> createExpenseEntry(@Valid @RequestBody ExpenseEntryDTO expenseEntryDTO,
@@ -40,6 +53,42 @@ public class ExpenseController {
 
     @GetMapping
     public ResponseEntity<List<ExpenseEntryDTO>> getExpenses(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) ExpenseEntry.ExpenseType type,
+            @RequestParam(required = false) String advanceToUsername,
+            @RequestParam(required = false) String outlet,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            ServletWebRequest webRequest) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        // Determine outlet scope
+        String effectiveOutlet = outlet;
+        if (!userDetails.getRole().name().equals("OWNER")) {
+            effectiveOutlet = userDetails.getOutlet();
+        } else {
+            effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
+        }
+
+        if (conditionalGet.notModified(webRequest, userDetails, effectiveOutlet)) {
+            return null;
+        }
+
+        CursorPage<ExpenseEntryDTO> expenses = expenseService.getFilteredExpenses(
+                effectiveOutlet, fromDate, toDate, type, advanceToUsername, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (expenses.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, expenses.getNextCursor());
+        }
+        return response.body(expenses.getItems());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false) ExpenseEntry.ExpenseType type,
@@ -53,12 +102,18 @@ public class ExpenseController {
         String effectiveOutlet = outlet;
         if (!userDetails.getRole().name().equals("OWNER")) {
             effectiveOutlet = userDetails.getOutlet();
-        } else if (effectiveOutlet == null) {
-            effectiveOutlet = "All Outlets";
+        } else {
+            effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
         }
 
-        List<ExpenseEntryDTO> expenses = expenseService.getFilteredExpenses(
+        ExpenseFilter filter = expenseService.buildFilter(
                 effectiveOutlet, fromDate, toDate, type, advanceToUsername);
-        return ResponseEntity.ok(expenses);
+        StreamingResponseBody body = outputStream -> exportService.exportExpenses(outputStream, filter);
+
+        return ResponseEntity.ok()
+                .contentType(CSV_MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("expense_data_" + LocalDate.now() + ".csv").build().toString())
+                .body(body);
     }
 }
\ No newline at end of file
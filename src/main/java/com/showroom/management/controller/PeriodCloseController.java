@@ -0,0 +1,82 @@
+package com.showroom.management.controller;
+
+import com.showroom.management.dto.ApiResponse;
+import com.showroom.management.dto.PeriodCloseDTO;
+import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.OutletDictionary;
+import com.showroom.management.service.PeriodCloseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/periods")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasAnyRole('OWNER', 'MANAGER')")
+public class PeriodCloseController {
+
+    private final PeriodCloseService periodCloseService;
+
+    /**
+     * Closes one day ({@code date}) or one month ({@code month}, yyyy-MM) of
+     * an outlet. Managers always close their own outlet.
+     */
+    @PostMapping("/close")
+    public ResponseEntity<?> closePeriod(
+            @RequestParam(required = false) String outlet,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            Authentication authentication) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String effectiveOutlet = effectiveOutlet(outlet, userDetails);
+        if (effectiveOutlet == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Choose the outlet to close"));
+        }
+        if ((date == null) == (month == null)) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Give either a date or a month to close"));
+        }
+
+        try {
+            PeriodCloseDTO closed = (date != null)
+                    ? periodCloseService.closeDay(effectiveOutlet, date, userDetails.getUsername())
+                    : periodCloseService.closeMonth(effectiveOutlet, month, userDetails.getUsername());
+            return ResponseEntity.ok(new ApiResponse(true, "Period closed successfully", closed));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getPeriodCloses(@RequestParam(required = false) String outlet,
+                                             Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String effectiveOutlet = effectiveOutlet(outlet, userDetails);
+        if (effectiveOutlet == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Choose an outlet"));
+        }
+
+        List<PeriodCloseDTO> closes = periodCloseService.getPeriodCloses(effectiveOutlet);
+        return ResponseEntity.ok(closes);
+    }
+
+    // Periods are closed per outlet, so all outlets is not a choice
+    private String effectiveOutlet(String outlet, UserDetailsImpl userDetails) {
+        if (!"OWNER".equals(userDetails.getRole().name())) {
+            return userDetails.getOutlet();
+        }
+        return OutletDictionary.scope(outlet);
+    }
+}
@@ -1,6 +1,7 @@
 package com.showroom.management.controller;
 
 import com.showroom.management.dto.*;
+import com.showroom.management.service.OutletDictionary;
 import com.showroom.management.service.SalaryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/salary")
@@ -37,4 +39,22 @@ public class SalaryController {
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> generateSalaryStatements(
+            @RequestParam(required = false) String outlet,
+            @RequestParam BigDecimal incentivePercentage,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam BigDecimal baseSalary) {
+
+        try {
+            List<SalaryStatementDTO> statements = salaryService.generateSalaryStatements(
+                    OutletDictionary.scope(outlet), incentivePercentage, fromDate, toDate, baseSalary);
+            return ResponseEntity.ok(new ApiResponse(true, "Salary statements generated successfully", statements));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
 }
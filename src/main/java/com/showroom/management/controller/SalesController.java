@@ -1,18 +1,35 @@
 package com.showroom.management.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.showroom.management.dto.*;
 import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.SalesFilter;
 import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.ExportService;
+import com.showroom.management.service.OutletDictionary;
+import com.showroom.management.service.SalesLeaderboardService;
 import com.showroom.management.service.SalesService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -21,7 +38,21 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class SalesController {
 
+    private static final MediaType CSV_MEDIA_TYPE = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final SalesService salesService;
+    private final ExportService exportService;
+    private final SalesLeaderboardService salesLeaderboardService;
+    private final ObjectMapper objectMapper;
+    private final ConditionalGet conditionalGet;
+
+    @Value("${app.sales.batchMaxRows:50000}")
+    private int maxBatchRows;
+
+    @Value("${app.leaderboard.maxLimit:100}")
+    private int maxLeaderboardLimit;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('OWNER', 'MANAGER')")
@@ -37,6 +68,37 @@ public class SalesController {
         }
     }
 
+    /**
+     * Bulk upload of POS bills, as a JSON array or as NDJSON (one bill per line).
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('OWNER', 'MANAGER')")
+    public ResponseEntity<?> importSales(InputStream body, Authentication authentication) {
+        List<SalesEntryDTO> rows = new ArrayList<>();
+        try (MappingIterator<SalesEntryDTO> it = objectMapper.readerFor(SalesEntryDTO.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                if (rows.size() == maxBatchRows) {
+                    return ResponseEntity.badRequest()
+                            .body(new ApiResponse(false, "Batch exceeds " + maxBatchRows + " rows"));
+                }
+                rows.add(it.nextValue());
+            }
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Invalid batch body at row " + rows.size() + ": " + e.getMessage()));
+        }
+
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            SalesBatchResultDTO result = salesService.importSales(rows, userDetails.getUsername());
+            return ResponseEntity.ok(new ApiResponse(true,
+                    result.getCreated() + " of " + result.getReceived() + " sales entries created", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<SalesEntryDTO>> getSales(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
@@ -44,33 +106,112 @@ public class SalesController {
             @RequestParam(required = false) String salesRepUsername,
             @RequestParam(required = false) SalesEntry.PaymentType paymentType,
             @RequestParam(required = false) String outlet,
-            Authentication authentication) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            ServletWebRequest webRequest) {
 
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
         // Determine the outlet scope based on user role
         String effectiveOutlet = outlet;
         if (userDetails.getRole().name().equals("SALES")) {
+            // A rep's sales are all booked to the rep's outlet
+            if (conditionalGet.notModified(webRequest, userDetails, userDetails.getOutlet())) {
+                return null;
+            }
+
             // Sales rep can only see their own data
-            List<SalesEntryDTO> sales = salesService.getSalesForUser(
-                    userDetails.getUsername(),
+            CursorPage<SalesEntryDTO> sales = salesService.getSalesForUser(
+                    userDetails.getId(),
                     userDetails.getRole().name(),
                     userDetails.getOutlet(),
                     fromDate,
-                    toDate
+                    toDate,
+                    cursor,
+                    size
             );
-            return ResponseEntity.ok(sales);
+            return toPageResponse(sales);
         } else if (!userDetails.getRole().name().equals("OWNER")) {
             // Manager can only see their outlet
             effectiveOutlet = userDetails.getOutlet();
-        } else if (effectiveOutlet == null) {
-            // Owner with no specific outlet filter
-            effectiveOutlet = "All Outlets";
+        } else {
+            // Owner: one outlet, or none for all outlets
+            effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
+        }
+
+        if (conditionalGet.notModified(webRequest, userDetails, effectiveOutlet)) {
+            return null;
+        }
+
+        CursorPage<SalesEntryDTO> sales = salesService.getFilteredSales(
+                effectiveOutlet, fromDate, toDate, salesRepUsername, paymentType, cursor, size);
+        return toPageResponse(sales);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(required = false) String salesRepUsername,
+            @RequestParam(required = false) SalesEntry.PaymentType paymentType,
+            @RequestParam(required = false) String outlet,
+            Authentication authentication) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        // Same scoping as the listing: reps get their own sales, managers their outlet
+        String effectiveOutlet = outlet;
+        SalesFilter filter;
+        if (userDetails.getRole().name().equals("SALES")) {
+            filter = salesService.buildSalesRepFilter(userDetails.getId(), fromDate, toDate);
+        } else {
+            if (!userDetails.getRole().name().equals("OWNER")) {
+                effectiveOutlet = userDetails.getOutlet();
+            } else {
+                effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
+            }
+            filter = salesService.buildFilter(effectiveOutlet, fromDate, toDate, salesRepUsername, paymentType);
+        }
+        StreamingResponseBody body = outputStream -> exportService.exportSales(outputStream, filter);
+
+        return ResponseEntity.ok()
+                .contentType(CSV_MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("sales_data_" + LocalDate.now() + ".csv").build().toString())
+                .body(body);
+    }
+
+    /**
+     * Top sales reps of today, this week or this month, served from memory.
+     * Managers always get their own outlet.
+     */
+    @GetMapping("/leaderboard")
+    @PreAuthorize("hasAnyRole('OWNER', 'MANAGER')")
+    public ResponseEntity<?> getLeaderboard(
+            @RequestParam(defaultValue = "TODAY") String period,
+            @RequestParam(required = false) String outlet,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String effectiveOutlet = outlet;
+        if (!"OWNER".equals(userDetails.getRole().name())) {
+            effectiveOutlet = userDetails.getOutlet();
+        } else {
+            effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
         }
 
-        List<SalesEntryDTO> sales = salesService.getFilteredSales(
-                effectiveOutlet, fromDate, toDate, salesRepUsername, paymentType);
-        return ResponseEntity.ok(sales);
+        try {
+            SalesLeaderboardService.Period leaderboardPeriod =
+                    SalesLeaderboardService.Period.valueOf(period.toUpperCase());
+            int effectiveLimit = Math.max(1, Math.min(limit, maxLeaderboardLimit));
+            return ResponseEntity.ok(salesLeaderboardService.getLeaderboard(
+                    leaderboardPeriod, effectiveOutlet, effectiveLimit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Period must be one of TODAY, WEEK or MONTH"));
+        }
     }
 
     @GetMapping("/dashboard-stats")
@@ -78,7 +219,8 @@ public class SalesController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
             @RequestParam(required = false) String outlet,
-            Authentication authentication) {
+            Authentication authentication,
+            ServletWebRequest webRequest) {
 
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         String userRole = userDetails.getRole().name();
@@ -87,6 +229,10 @@ public class SalesController {
         DashboardStatsDTO stats;
 
         if ("SALES".equals(userRole)) {
+            if (conditionalGet.notModified(webRequest, userDetails, userDetails.getOutlet())) {
+                return null;
+            }
+
             // Sales rep sees only their own data
             stats = salesService.getDashboardStatsForSalesRep(username, fromDate, toDate);
         } else {
@@ -94,8 +240,12 @@ public class SalesController {
             String effectiveOutlet = outlet;
             if (!"OWNER".equals(userRole)) {
                 effectiveOutlet = userDetails.getOutlet();
-            } else if (effectiveOutlet == null) {
-                effectiveOutlet = "All Outlets";
+            } else {
+                effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
+            }
+
+            if (conditionalGet.notModified(webRequest, userDetails, effectiveOutlet)) {
+                return null;
             }
 
             stats = salesService.getDashboardStats(effectiveOutlet, fromDate, toDate);
@@ -103,4 +253,12 @@ public class SalesController {
 
         return ResponseEntity.ok(stats);
     }
+
+    private ResponseEntity<List<SalesEntryDTO>> toPageResponse(CursorPage<SalesEntryDTO> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.showroom.management.controller;
+
+import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.DashboardPushService;
+import com.showroom.management.service.OutletDictionary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class StreamController {
+
+    private final DashboardPushService dashboardPushService;
+
+    /**
+     * Server-sent events with the same scope and parameters as
+     * {@code /api/sales/dashboard-stats}: a "stats" event on connect and after
+     * every change, plus "sales" events carrying newly created entries.
+     */
+    @GetMapping(value = "/dashboard", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(required = false) String outlet,
+            Authentication authentication) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String userRole = userDetails.getRole().name();
+
+        try {
+            SseEmitter emitter;
+            if ("SALES".equals(userRole)) {
+                // Sales rep sees only their own data
+                emitter = dashboardPushService.subscribe(userDetails.getOutlet(),
+                        userDetails.getId(), userDetails.getUsername(), fromDate, toDate);
+            } else {
+                String effectiveOutlet = outlet;
+                if (!"OWNER".equals(userRole)) {
+                    effectiveOutlet = userDetails.getOutlet();
+                } else {
+                    effectiveOutlet = OutletDictionary.scope(effectiveOutlet);
+                }
+                emitter = dashboardPushService.subscribe(effectiveOutlet, null, null, fromDate, toDate);
+            }
+            return ResponseEntity.ok(emitter);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
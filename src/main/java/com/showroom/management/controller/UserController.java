@@ -2,6 +2,7 @@ package com.showroom.management.controller;
 
 import com.showroom.management.dto.*;
 import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.OutletDictionary;
 import com.showroom.management.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -32,7 +33,7 @@ public class UserController {
 
     @GetMapping("/sales-reps")
     public ResponseEntity<List<UserDTO>> getSalesReps(
-            @RequestParam(defaultValue = "All Outlets") String outlet,
+            @RequestParam(required = false) String outlet,
             Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -41,7 +42,7 @@ public class UserController {
             outlet = userDetails.getOutlet();
         }
 
-        List<UserDTO> salesReps = userService.getSalesReps(outlet);
+        List<UserDTO> salesReps = userService.getSalesReps(OutletDictionary.scope(outlet));
         return ResponseEntity.ok(salesReps);
     }
 
@@ -0,0 +1,42 @@
+package com.showroom.management.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private List<T> items;
+    private String nextCursor;
+
+    public static int clampPageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Builds a page from {@code pageSize + 1} fetched rows; the extra row only
+     * signals that another page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int pageSize,
+                                          Function<E, T> mapper, Function<E, PageCursor> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<T> items = pageRows.stream().map(mapper).collect(Collectors.toList());
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageSize - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+}
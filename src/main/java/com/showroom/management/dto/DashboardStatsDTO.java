@@ -2,8 +2,11 @@ package com.showroom.management.dto;
 
 import lombok.Data;
 import lombok.AllArgsConstructor;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -12,4 +15,7 @@ public class DashboardStatsDTO {
     private BigDecimal totalExpenses;
     private BigDecimal netProfit;
     private Long totalTransactions;
-}
\ No newline at end of file
+    private Map<SalesEntry.PaymentType, BigDecimal> salesByPaymentType;
+    private Map<SalesEntry.PaymentType, Long> transactionsByPaymentType;
+    private Map<ExpenseEntry.ExpenseType, BigDecimal> expensesByType;
+}
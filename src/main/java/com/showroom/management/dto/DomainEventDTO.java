@@ -0,0 +1,25 @@
+package com.showroom.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainEventDTO {
+    // Offset of the event in the feed
+    private Long id;
+    private String type;
+    private String aggregateType;
+    private Long aggregateId;
+    // Null for events that belong to no single outlet
+    private String outlet;
+    // The sale, expense or user as the API returns it, at the time of the event
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime createdAt;
+}
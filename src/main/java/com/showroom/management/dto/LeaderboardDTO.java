@@ -0,0 +1,33 @@
+package com.showroom.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDTO {
+    private String period;
+    private String outlet;
+    // Inclusive start and exclusive end of the period
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private int rank;
+        private Long salesRepId;
+        private String salesRepUsername;
+        private String salesRepName;
+        private BigDecimal totalSales;
+        private long transactions;
+    }
+}
@@ -0,0 +1,44 @@
+package com.showroom.management.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Seek position of the last row on a page, ordered by {@code (dateTime, id)} descending.
+ * Encoded as an opaque URL-safe token for clients.
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime position;
+    private Long id;
+
+    public String encode() {
+        String raw = position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded position, or null when no cursor was supplied (first page)
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
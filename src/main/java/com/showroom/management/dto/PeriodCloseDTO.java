@@ -0,0 +1,31 @@
+package com.showroom.management.dto;
+
+import com.showroom.management.entity.PeriodClose;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodCloseDTO {
+    private String outlet;
+    // Both inclusive
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String closedBy;
+    private LocalDateTime closedAt;
+
+    public static PeriodCloseDTO fromEntity(PeriodClose periodClose, String outlet) {
+        return new PeriodCloseDTO(
+                outlet,
+                periodClose.getId().getPeriodStart(),
+                periodClose.getPeriodEnd(),
+                periodClose.getClosedBy(),
+                periodClose.getClosedAt()
+        );
+    }
+}
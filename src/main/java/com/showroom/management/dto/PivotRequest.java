@@ -0,0 +1,39 @@
+package com.showroom.management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/analytics/pivot}. Dimension and measure names are
+ * checked against a fixed list (see {@code PivotQuery}), so nothing from the
+ * request ends up in the SQL text.
+ */
+@Data
+public class PivotRequest {
+    @NotNull(message = "Source is required")
+    private Source source;
+
+    // outlet, rep, paymentType, expenseType, day, week, month
+    private List<String> dimensions = new ArrayList<>();
+
+    // sum, count, avg
+    @NotEmpty(message = "At least one measure is required")
+    private List<String> measures = new ArrayList<>();
+
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+
+    @NotNull(message = "To date is required")
+    private LocalDate toDate;
+
+    private String outlet;
+
+    public enum Source {
+        SALES, EXPENSES
+    }
+}
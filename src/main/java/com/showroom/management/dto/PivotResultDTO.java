@@ -0,0 +1,19 @@
+package com.showroom.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One row per group, values in the order of {@code columns}: the requested
+ * dimensions followed by the requested measures.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PivotResultDTO {
+    private List<String> columns;
+    private List<List<Object>> rows;
+}
@@ -0,0 +1,34 @@
+package com.showroom.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBatchResultDTO {
+    private int received;
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<RowResult> rows;
+
+    public enum RowStatus {
+        CREATED, DUPLICATE, INVALID
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        // Zero-based position of the row in the request body
+        private int index;
+        private String billNumber;
+        private RowStatus status;
+        private Long id;
+        private String message;
+    }
+}
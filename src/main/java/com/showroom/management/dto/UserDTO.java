@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.showroom.management.entity.User;
+import com.showroom.management.service.OutletDictionary;
 
 @Data
 @NoArgsConstructor
@@ -22,7 +23,7 @@ public class UserDTO {
                 user.getUsername(),
                 user.getFullName(),
                 user.getRole(),
-                user.getOutlet(),
+                OutletDictionary.label(user.getOutlet()),
                 user.getIsActive()
         );
     }
@@ -13,7 +13,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expense_entries")
+@Table(name = "expense_entries", indexes = {
+        @Index(name = "idx_expense_entries_outlet_date_type", columnList = "outlet_id, date, type"),
+        @Index(name = "idx_expense_entries_advance_to_date", columnList = "advance_to_id, date"),
+        @Index(name = "idx_expense_entries_date", columnList = "date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,7 +27,8 @@ public class ExpenseEntry {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    @Convert(converter = OutletConverter.class)
+    @Column(name = "outlet_id", nullable = false)
     private String outlet;
 
     @Column(nullable = false)
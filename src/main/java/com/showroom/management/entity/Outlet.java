@@ -0,0 +1,25 @@
+package com.showroom.management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An outlet, referenced by its small id from users, entries, the rollup and
+ * period closes. Entities map the id to the name through
+ * {@link OutletConverter}, so outlets are never joined in to read a row.
+ */
+@Entity
+@Table(name = "outlets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Outlet {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Column(unique = true, nullable = false)
+    private String name;
+}
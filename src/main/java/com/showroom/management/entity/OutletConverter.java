@@ -0,0 +1,29 @@
+package com.showroom.management.entity;
+
+import com.showroom.management.service.OutletDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an outlet name as its id in {@code outlets}. Null stays null, which
+ * for a user means all outlets.
+ */
+@Converter
+public class OutletConverter implements AttributeConverter<String, Short> {
+
+    private final OutletDictionary outletDictionary;
+
+    public OutletConverter(OutletDictionary outletDictionary) {
+        this.outletDictionary = outletDictionary;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String outlet) {
+        return (outlet == null) ? null : outletDictionary.idOf(outlet);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short outletId) {
+        return (outletId == null) ? null : outletDictionary.nameOf(outletId);
+    }
+}
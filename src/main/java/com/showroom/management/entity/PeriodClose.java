@@ -0,0 +1,48 @@
+package com.showroom.management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A day or month whose books an outlet has closed. Totals of the period are
+ * frozen in {@code sales_period_snapshots} and {@code expense_period_snapshots},
+ * and entries on or before the latest closed day are rejected by the database.
+ */
+@Entity
+@Table(name = "period_closes", indexes = {
+        @Index(name = "idx_period_closes_outlet_end", columnList = "outlet_id, period_end")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodClose {
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "closed_by", nullable = false)
+    private String closedBy;
+
+    @Column(name = "closed_at", nullable = false)
+    private LocalDateTime closedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "outlet_id", nullable = false)
+        private Short outletId;
+
+        @Column(name = "period_start", nullable = false)
+        private LocalDate periodStart;
+    }
+}
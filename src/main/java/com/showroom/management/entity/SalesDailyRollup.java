@@ -0,0 +1,54 @@
+package com.showroom.management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-day sales totals for one outlet, sales rep and payment type.
+ * Maintained in the same transaction as every new {@link SalesEntry}
+ * so dashboard totals can be summed per day instead of per bill.
+ */
+@Entity
+@Table(name = "sales_daily_rollup", indexes = {
+        @Index(name = "idx_sales_daily_rollup_date", columnList = "sales_date"),
+        @Index(name = "idx_sales_daily_rollup_outlet_date", columnList = "outlet_id, sales_date"),
+        @Index(name = "idx_sales_daily_rollup_sales_rep_date", columnList = "sales_rep_id, sales_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyRollup {
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "sales_date", nullable = false)
+        private LocalDate salesDate;
+
+        @Column(name = "outlet_id", nullable = false)
+        private Short outletId;
+
+        @Column(name = "sales_rep_id", nullable = false)
+        private Long salesRepId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "payment_type", nullable = false)
+        private SalesEntry.PaymentType paymentType;
+    }
+}
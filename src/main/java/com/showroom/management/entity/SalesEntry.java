@@ -12,21 +12,28 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales_entries")
+@Table(name = "sales_entries", indexes = {
+        @Index(name = "idx_sales_entries_outlet_date_time", columnList = "outlet_id, date_time, id"),
+        @Index(name = "idx_sales_entries_sales_rep_date_time", columnList = "sales_rep_id, date_time, id"),
+        @Index(name = "idx_sales_entries_date_time", columnList = "date_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class SalesEntry {
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY would force one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_entries_seq")
+    @SequenceGenerator(name = "sales_entries_seq", sequenceName = "sales_entries_seq", allocationSize = 500)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sales_rep_id", nullable = false)
     private User salesRep;
 
-    @Column(nullable = false)
+    @Convert(converter = OutletConverter.class)
+    @Column(name = "outlet_id", nullable = false)
     private String outlet;
 
     @Column(name = "date_time", nullable = false)
@@ -0,0 +1,29 @@
+package com.showroom.management.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+public class DuplicateBillNumberException extends RuntimeException {
+
+    // SQLSTATE for unique_violation, shared by PostgreSQL and H2
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    public DuplicateBillNumberException() {
+        super("Bill number already exists");
+    }
+
+    /**
+     * Whether an insert into {@code sales_entries} failed on a unique
+     * constraint. Ids come from a sequence, so that can only be the bill number.
+     */
+    public static boolean isCausedBy(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.showroom.management.exception;
+
+import org.springframework.dao.DataAccessException;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+public class PeriodClosedException extends RuntimeException {
+
+    // Raised by assert_period_open() in the database
+    private static final String PERIOD_CLOSED = "SR001";
+
+    public PeriodClosedException(String outlet, LocalDate closedThrough) {
+        super("Books of " + outlet + " are closed through " + closedThrough);
+    }
+
+    public PeriodClosedException(String outlet) {
+        super("Books of " + outlet + " are closed for this date");
+    }
+
+    public PeriodClosedException() {
+        super("Books are closed for one of these dates");
+    }
+
+    /**
+     * Whether a write was rejected because it falls into a closed period.
+     */
+    public static boolean isCausedBy(DataAccessException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && PERIOD_CLOSED.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.showroom.management.metrics;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Outlet tags come from request parameters, so cap how many distinct values are kept
+    private static final int MAX_OUTLET_TAGS = 50;
+
+    @Bean
+    public MeterFilter outletTagLimit() {
+        return MeterFilter.maximumAllowableTags("showroom", "outlet", MAX_OUTLET_TAGS, MeterFilter.deny());
+    }
+
+    /**
+     * Applied by Spring Boot to the application task executor, so reads that
+     * {@code ParallelQueries} forks are counted for the request.
+     */
+    @Bean
+    public TaskDecorator sqlStatementCounterTaskDecorator() {
+        return SqlStatementCounter::propagate;
+    }
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
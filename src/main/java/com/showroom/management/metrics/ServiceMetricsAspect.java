@@ -0,0 +1,111 @@
+package com.showroom.management.metrics;
+
+import com.showroom.management.dto.CursorPage;
+import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.OutletDictionary;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+
+/**
+ * Times every public method of the business services and records the number
+ * of rows returned by listings, tagged by outlet and the caller's role.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_TIMER = "showroom.service";
+    public static final String LISTING_ROWS = "showroom.listing.rows";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.showroom.management.service.SalesService.*(..)) || " +
+            "execution(public * com.showroom.management.service.ExpenseService.*(..)) || " +
+            "execution(public * com.showroom.management.service.SalaryService.*(..)) || " +
+            "execution(public * com.showroom.management.service.UserService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Tags tags = Tags.of(
+                "service", signature.getDeclaringType().getSimpleName(),
+                "method", signature.getName(),
+                "outlet", outlet(signature, joinPoint.getArgs()),
+                "role", role());
+
+        String exception = NONE;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            recordRows(tags, result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void recordRows(Tags tags, Object result) {
+        int rows;
+        if (result instanceof CursorPage<?> page) {
+            rows = page.getItems().size();
+        } else if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else {
+            return;
+        }
+
+        DistributionSummary.builder(LISTING_ROWS)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    // The outlet the call is scoped to, falling back to the caller's own outlet
+    private static String outlet(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (("outlet".equals(names[i]) || "userOutlet".equals(names[i]))
+                        && args[i] instanceof String outlet && StringUtils.hasText(outlet)) {
+                    return outlet;
+                }
+            }
+        }
+
+        UserDetailsImpl principal = principal();
+        return (principal != null) ? OutletDictionary.label(principal.getOutlet()) : NONE;
+    }
+
+    private static String role() {
+        UserDetailsImpl principal = principal();
+        return (principal != null) ? principal.getRole().name() : NONE;
+    }
+
+    private static UserDetailsImpl principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails;
+        }
+        return null;
+    }
+}
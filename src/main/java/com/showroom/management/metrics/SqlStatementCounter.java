@@ -0,0 +1,62 @@
+package com.showroom.management.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts JDBC statements prepared on the current thread while a request is
+ * being measured. Statements outside a measured request are not counted.
+ * Tasks handed to the application task executor count towards the request
+ * that submitted them, see {@link #propagate(Runnable)}.
+ */
+public final class SqlStatementCounter {
+
+    // Shared with forked tasks, which may count while the request thread does
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    static void increment() {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return statements counted since {@link #start()}, or -1 if not started
+     */
+    public static int stop() {
+        AtomicInteger count = COUNT.get();
+        COUNT.remove();
+        return (count != null) ? count.get() : -1;
+    }
+
+    /**
+     * Wraps a task so statements it runs on another thread are added to the
+     * count of the calling thread.
+     */
+    static Runnable propagate(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    COUNT.set(previous);
+                } else {
+                    COUNT.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dashboard aggregates. Sales and expenses are separate queries so that
+ * {@code DashboardStatsService} can run them concurrently.
+ *
+ * Sales for whole days come from {@code sales_daily_rollup}; the partial days
+ * at the head and tail of the range are read from {@code sales_entries}.
+ * A window whose start is after its end matches nothing.
+ *
+ * Periods an outlet has closed are summed from their frozen snapshots
+ * ({@code sales_period_snapshots}, {@code expense_period_snapshots}), so only
+ * the open days around them are scanned. Closes and snapshots are read in the
+ * same statement as the live rows, so a close running meanwhile is either
+ * seen whole or not at all.
+ *
+ * Each query is its own read-only transaction when called without one, so
+ * it can be served by the read replica.
+ */
+@org.springframework.stereotype.Repository
+@Transactional(readOnly = true)
+public interface DashboardStatsRepository extends Repository<SalesDailyRollup, SalesDailyRollup.Key> {
+
+    String SALES = "SALES";
+    String EXPENSE = "EXPENSE";
+
+    // First and last day of the closed periods lying entirely within a window.
+    // Closes of an outlet are contiguous, so every day in between is closed.
+    // Without any, the range starts after the window and nothing is excluded.
+    String COVERED_START = "COALESCE(MIN(c.period_start), CAST(:rollupTo AS date) + 1) AS period_start";
+    String COVERED_END = "COALESCE(MAX(c.period_end), CAST(:rollupTo AS date)) AS period_end";
+    String COVERED_START_EXPENSES = "COALESCE(MIN(c.period_start), CAST(:toDate AS date) + 1) AS period_start";
+    String COVERED_END_EXPENSES = "COALESCE(MAX(c.period_end), CAST(:toDate AS date)) AS period_end";
+
+    /**
+     * Closed periods inside the rollup window come from their snapshots; the
+     * rollup is read only before and after them.
+     */
+    @Query(value = "WITH covered AS (SELECT " + COVERED_START + ", " + COVERED_END + " " +
+            "FROM period_closes c WHERE c.outlet_id = :outletId AND " +
+            "c.period_start >= :rollupFrom AND c.period_end <= :rollupTo) " +
+            "SELECT 'SALES' AS category, p.payment_type AS bucket, " +
+            "SUM(p.total_amount) AS amount, CAST(SUM(p.transaction_count) AS bigint) AS entryCount " +
+            "FROM sales_period_snapshots p WHERE " +
+            "p.outlet_id = :outletId AND " +
+            "p.period_start >= :rollupFrom AND p.period_end <= :rollupTo " +
+            "GROUP BY p.payment_type " +
+            "UNION ALL " +
+            "SELECT 'SALES', r.payment_type, SUM(r.total_amount), CAST(SUM(r.transaction_count) AS bigint) " +
+            "FROM sales_daily_rollup r WHERE " +
+            "r.outlet_id = :outletId AND " +
+            "((r.sales_date >= :rollupFrom AND r.sales_date < (SELECT period_start FROM covered)) OR " +
+            "(r.sales_date > (SELECT period_end FROM covered) AND r.sales_date <= :rollupTo)) " +
+            "GROUP BY r.payment_type " +
+            "UNION ALL " +
+            "SELECT 'SALES', s.payment_type, SUM(s.amount), COUNT(*) " +
+            "FROM sales_entries s WHERE " +
+            "s.outlet_id = :outletId AND " +
+            "((s.date_time >= CAST(:headFrom AS timestamp) AND s.date_time <= CAST(:headTo AS timestamp)) OR " +
+            "(s.date_time >= CAST(:tailFrom AS timestamp) AND s.date_time <= CAST(:tailTo AS timestamp))) " +
+            "GROUP BY s.payment_type",
+            nativeQuery = true)
+    List<StatsBucket> getOutletSalesBreakdown(@Param("outletId") Short outletId,
+                                              @Param("rollupFrom") LocalDate rollupFrom,
+                                              @Param("rollupTo") LocalDate rollupTo,
+                                              @Param("headFrom") LocalDateTime headFrom,
+                                              @Param("headTo") LocalDateTime headTo,
+                                              @Param("tailFrom") LocalDateTime tailFrom,
+                                              @Param("tailTo") LocalDateTime tailTo);
+
+    @Query(value = "WITH covered AS (SELECT c.outlet_id, MIN(c.period_start) AS period_start, " +
+            "MAX(c.period_end) AS period_end FROM period_closes c WHERE " +
+            "c.period_start >= :rollupFrom AND c.period_end <= :rollupTo GROUP BY c.outlet_id) " +
+            "SELECT 'SALES' AS category, p.payment_type AS bucket, " +
+            "SUM(p.total_amount) AS amount, CAST(SUM(p.transaction_count) AS bigint) AS entryCount " +
+            "FROM sales_period_snapshots p WHERE " +
+            "p.period_start >= :rollupFrom AND p.period_end <= :rollupTo " +
+            "GROUP BY p.payment_type " +
+            "UNION ALL " +
+            "SELECT 'SALES', r.payment_type, SUM(r.total_amount), CAST(SUM(r.transaction_count) AS bigint) " +
+            "FROM sales_daily_rollup r LEFT JOIN covered k ON k.outlet_id = r.outlet_id WHERE " +
+            "r.sales_date >= :rollupFrom AND r.sales_date <= :rollupTo AND " +
+            "(k.outlet_id IS NULL OR r.sales_date < k.period_start OR r.sales_date > k.period_end) " +
+            "GROUP BY r.payment_type " +
+            "UNION ALL " +
+            "SELECT 'SALES', s.payment_type, SUM(s.amount), COUNT(*) " +
+            "FROM sales_entries s WHERE " +
+            "((s.date_time >= CAST(:headFrom AS timestamp) AND s.date_time <= CAST(:headTo AS timestamp)) OR " +
+            "(s.date_time >= CAST(:tailFrom AS timestamp) AND s.date_time <= CAST(:tailTo AS timestamp))) " +
+            "GROUP BY s.payment_type",
+            nativeQuery = true)
+    List<StatsBucket> getAllOutletsSalesBreakdown(@Param("rollupFrom") LocalDate rollupFrom,
+                                                  @Param("rollupTo") LocalDate rollupTo,
+                                                  @Param("headFrom") LocalDateTime headFrom,
+                                                  @Param("headTo") LocalDateTime headTo,
+                                                  @Param("tailFrom") LocalDateTime tailFrom,
+                                                  @Param("tailTo") LocalDateTime tailTo);
+
+    @Query(value = "WITH covered AS (SELECT " + COVERED_START_EXPENSES + ", " + COVERED_END_EXPENSES + " " +
+            "FROM period_closes c WHERE c.outlet_id = :outletId AND " +
+            "c.period_start >= :fromDate AND c.period_end <= :toDate) " +
+            "SELECT 'EXPENSE' AS category, p.type AS bucket, " +
+            "SUM(p.total_amount) AS amount, CAST(SUM(p.entry_count) AS bigint) AS entryCount " +
+            "FROM expense_period_snapshots p WHERE " +
+            "p.outlet_id = :outletId AND " +
+            "p.period_start >= :fromDate AND p.period_end <= :toDate " +
+            "GROUP BY p.type " +
+            "UNION ALL " +
+            "SELECT 'EXPENSE', e.type, SUM(e.amount), COUNT(*) " +
+            "FROM expense_entries e WHERE " +
+            "e.outlet_id = :outletId AND " +
+            "((e.date >= :fromDate AND e.date < (SELECT period_start FROM covered)) OR " +
+            "(e.date > (SELECT period_end FROM covered) AND e.date <= :toDate)) " +
+            "GROUP BY e.type",
+            nativeQuery = true)
+    List<StatsBucket> getOutletExpenseBreakdown(@Param("outletId") Short outletId,
+                                                @Param("fromDate") LocalDate fromDate,
+                                                @Param("toDate") LocalDate toDate);
+
+    @Query(value = "WITH covered AS (SELECT c.outlet_id, MIN(c.period_start) AS period_start, " +
+            "MAX(c.period_end) AS period_end FROM period_closes c WHERE " +
+            "c.period_start >= :fromDate AND c.period_end <= :toDate GROUP BY c.outlet_id) " +
+            "SELECT 'EXPENSE' AS category, p.type AS bucket, " +
+            "SUM(p.total_amount) AS amount, CAST(SUM(p.entry_count) AS bigint) AS entryCount " +
+            "FROM expense_period_snapshots p WHERE " +
+            "p.period_start >= :fromDate AND p.period_end <= :toDate " +
+            "GROUP BY p.type " +
+            "UNION ALL " +
+            "SELECT 'EXPENSE', e.type, SUM(e.amount), COUNT(*) " +
+            "FROM expense_entries e LEFT JOIN covered k ON k.outlet_id = e.outlet_id WHERE " +
+            "e.date >= :fromDate AND e.date <= :toDate AND " +
+            "(k.outlet_id IS NULL OR e.date < k.period_start OR e.date > k.period_end) " +
+            "GROUP BY e.type",
+            nativeQuery = true)
+    List<StatsBucket> getAllOutletsExpenseBreakdown(@Param("fromDate") LocalDate fromDate,
+                                                    @Param("toDate") LocalDate toDate);
+
+    @Query(value = "SELECT 'SALES' AS category, r.payment_type AS bucket, " +
+            "SUM(r.total_amount) AS amount, CAST(SUM(r.transaction_count) AS bigint) AS entryCount " +
+            "FROM sales_daily_rollup r WHERE " +
+            "r.sales_rep_id = :salesRepId AND " +
+            "r.sales_date >= :rollupFrom AND r.sales_date <= :rollupTo " +
+            "GROUP BY r.payment_type " +
+            "UNION ALL " +
+            "SELECT 'SALES', s.payment_type, SUM(s.amount), COUNT(*) " +
+            "FROM sales_entries s WHERE " +
+            "s.sales_rep_id = :salesRepId AND " +
+            "((s.date_time >= CAST(:headFrom AS timestamp) AND s.date_time <= CAST(:headTo AS timestamp)) OR " +
+            "(s.date_time >= CAST(:tailFrom AS timestamp) AND s.date_time <= CAST(:tailTo AS timestamp))) " +
+            "GROUP BY s.payment_type",
+            nativeQuery = true)
+    List<StatsBucket> getSalesRepBreakdown(@Param("salesRepId") Long salesRepId,
+                                           @Param("rollupFrom") LocalDate rollupFrom,
+                                           @Param("rollupTo") LocalDate rollupTo,
+                                           @Param("headFrom") LocalDateTime headFrom,
+                                           @Param("headTo") LocalDateTime headTo,
+                                           @Param("tailFrom") LocalDateTime tailFrom,
+                                           @Param("tailTo") LocalDateTime tailTo);
+
+    interface StatsBucket {
+        String getCategory();
+
+        String getBucket();
+
+        BigDecimal getAmount();
+
+        Long getEntryCount();
+    }
+}
@@ -0,0 +1,135 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.DomainEventDTO;
+import com.showroom.management.service.OutletDictionary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code domain_events} journal and the relay's offsets.
+ *
+ * Events are read in (tx_id, id) order, and only those written by
+ * transactions older than every transaction still running. Ids are handed out
+ * at insert, not at commit, so reading by id alone could pass over an event
+ * whose transaction commits later; a transaction that is still running always
+ * sorts after everything already read.
+ */
+@Repository
+public class DomainEventRepository {
+
+    private static final String SELECT_EVENTS = "SELECT e.id, e.event_type, e.aggregate_type, e.aggregate_id, " +
+            "e.outlet_id, e.payload, e.created_at FROM domain_events e " +
+            "WHERE e.tx_id < pg_snapshot_xmin(pg_current_snapshot())";
+
+    private static final String INSERT_EVENT = "INSERT INTO domain_events " +
+            "(event_type, aggregate_type, aggregate_id, outlet_id, payload) " +
+            "VALUES (:type, :aggregateType, :aggregateId, :outletId, CAST(:payload AS jsonb))";
+
+    // Lets one relay run at a time across instances
+    private static final long RELAY_LOCK = 0x6576656e74L;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OutletDictionary outletDictionary;
+
+    public DomainEventRepository(NamedParameterJdbcTemplate jdbcTemplate, OutletDictionary outletDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outletDictionary = outletDictionary;
+    }
+
+    public void append(List<NewEvent> events) {
+        SqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("type", event.getType())
+                        .addValue("aggregateType", event.getAggregateType())
+                        .addValue("aggregateId", event.getAggregateId())
+                        .addValue("outletId",
+                                event.getOutlet() != null ? outletDictionary.idOf(event.getOutlet()) : null)
+                        .addValue("payload", event.getPayload()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_EVENT, batch);
+    }
+
+    /**
+     * Events after the given one (from the start for null), oldest first.
+     */
+    public List<DomainEventDTO> findAfter(Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = SELECT_EVENTS;
+        if (afterId != null) {
+            List<String> afterTx = jdbcTemplate.queryForList(
+                    "SELECT CAST(e.tx_id AS text) FROM domain_events e WHERE e.id = :id",
+                    Map.of("id", afterId), String.class);
+            if (afterTx.isEmpty()) {
+                throw new RuntimeException("Unknown event: " + afterId);
+            }
+            sql += " AND (e.tx_id, e.id) > (CAST(:afterTx AS xid8), :afterId)";
+            params.addValue("afterTx", afterTx.get(0)).addValue("afterId", afterId);
+        }
+
+        return jdbcTemplate.query(sql + " ORDER BY e.tx_id, e.id LIMIT :limit", params, (rs, rowNum) -> {
+            short outletId = rs.getShort("outlet_id");
+            String outlet = rs.wasNull() ? null : outletDictionary.nameOf(outletId);
+            return new DomainEventDTO(
+                    rs.getLong("id"),
+                    rs.getString("event_type"),
+                    rs.getString("aggregate_type"),
+                    rs.getLong("aggregate_id"),
+                    outlet,
+                    rs.getString("payload"),
+                    rs.getObject("created_at", LocalDateTime.class));
+        });
+    }
+
+    /**
+     * The last event {@link #findAfter} can return yet, or null while the
+     * journal is empty.
+     */
+    public Long findLatestId() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT e.id FROM domain_events e " +
+                "WHERE e.tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+                "ORDER BY e.tx_id DESC, e.id DESC LIMIT 1", Map.of(), Long.class);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Takes the relay lock until the current transaction ends; false if
+     * another relay holds it.
+     */
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(:lock)", Map.of("lock", RELAY_LOCK), Boolean.class));
+    }
+
+    public Long findOffset(String sink) {
+        List<Long> offsets = jdbcTemplate.queryForList(
+                "SELECT o.last_event_id FROM domain_event_offsets o WHERE o.sink = :sink",
+                Map.of("sink", sink), Long.class);
+        return offsets.isEmpty() ? null : offsets.get(0);
+    }
+
+    public void saveOffset(String sink, long lastEventId) {
+        jdbcTemplate.update("INSERT INTO domain_event_offsets (sink, last_event_id, updated_at) " +
+                        "VALUES (:sink, :lastEventId, localtimestamp) " +
+                        "ON CONFLICT (sink) DO UPDATE SET last_event_id = EXCLUDED.last_event_id, " +
+                        "updated_at = EXCLUDED.updated_at",
+                Map.of("sink", sink, "lastEventId", lastEventId));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class NewEvent {
+        private final String type;
+        private final String aggregateType;
+        private final long aggregateId;
+        private final String outlet;
+        private final String payload;
+    }
+}
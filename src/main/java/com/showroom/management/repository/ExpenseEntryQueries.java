@@ -0,0 +1,25 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.ExpenseEntryDTO;
+import com.showroom.management.dto.PageCursor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered expense reads built with {@link SqlQuery}, mixed into {@link ExpenseEntryRepository}.
+ */
+public interface ExpenseEntryQueries {
+
+    /**
+     * One keyset page ordered by {@code (date, id)} descending, starting
+     * after {@code cursor} (or from the newest row when it is null).
+     */
+    List<ExpenseEntryDTO> findFilteredExpenses(ExpenseFilter filter, PageCursor cursor, int limit);
+
+    /**
+     * All matching rows in listing order, read through a database cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<ExpenseEntryDTO> streamFilteredExpenses(ExpenseFilter filter);
+}
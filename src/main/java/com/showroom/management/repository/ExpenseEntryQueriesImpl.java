@@ -0,0 +1,85 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.ExpenseEntryDTO;
+import com.showroom.management.dto.PageCursor;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.service.OutletDictionary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ExpenseEntryQueriesImpl implements ExpenseEntryQueries {
+
+    private static final String SELECT_EXPENSES = "SELECT e.id, e.outlet_id, e.date, e.type, e.amount, " +
+            "e.description, u.username, u.full_name, e.created_by, e.created_at " +
+            "FROM expense_entries e LEFT JOIN users u ON u.id = e.advance_to_id";
+
+    private static final String ORDER_BY = "e.date DESC, e.id DESC";
+
+    private static final int FETCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OutletDictionary outletDictionary;
+    private final RowMapper<ExpenseEntryDTO> expenseRowMapper;
+
+    public ExpenseEntryQueriesImpl(DataSource dataSource, OutletDictionary outletDictionary) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.outletDictionary = outletDictionary;
+        this.expenseRowMapper = this::mapExpenseEntry;
+    }
+
+    @Override
+    public List<ExpenseEntryDTO> findFilteredExpenses(ExpenseFilter filter, PageCursor cursor, int limit) {
+        SqlQuery query = filteredExpensesQuery(filter, cursor).limit(limit);
+        return jdbcTemplate.query(query.sql(), query.params(), expenseRowMapper);
+    }
+
+    @Override
+    public Stream<ExpenseEntryDTO> streamFilteredExpenses(ExpenseFilter filter) {
+        SqlQuery query = filteredExpensesQuery(filter, null);
+        return jdbcTemplate.queryForStream(query.sql(), query.params(), expenseRowMapper);
+    }
+
+    private ExpenseEntryDTO mapExpenseEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new ExpenseEntryDTO(
+                rs.getLong("id"),
+                outletDictionary.nameOf(rs.getShort("outlet_id")),
+                rs.getObject("date", LocalDate.class),
+                ExpenseEntry.ExpenseType.valueOf(rs.getString("type")),
+                rs.getBigDecimal("amount"),
+                rs.getString("description"),
+                rs.getString("username"),
+                rs.getString("full_name"),
+                rs.getString("created_by"),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    static SqlQuery filteredExpensesQuery(ExpenseFilter filter, PageCursor cursor) {
+        SqlQuery query = SqlQuery.select(SELECT_EXPENSES)
+                .whereIfPresent("e.outlet_id = :outletId", "outletId", filter.getOutletId())
+                .whereIfPresent("e.advance_to_id = :advanceToId", "advanceToId", filter.getAdvanceToId())
+                .whereIfPresent("e.date >= :fromDate", "fromDate", filter.getFromDate())
+                .whereIfPresent("e.date <= :toDate", "toDate", filter.getToDate())
+                .whereIfPresent("e.type = :type", "type",
+                        filter.getType() != null ? filter.getType().name() : null);
+
+        if (cursor != null) {
+            // Seek past the last row of the previous page
+            LocalDate cursorDate = cursor.getPosition().toLocalDate();
+            query.where("e.date <= :cursorDate AND (e.date < :cursorDate OR e.id < :cursorId)",
+                    "cursorDate", cursorDate, "cursorId", cursor.getId());
+        }
+
+        return query.orderBy(ORDER_BY);
+    }
+}
@@ -0,0 +1,23 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.ExpenseEntry;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Filters for expense listings and exports. A null field means "not filtered";
+ * a null outlet covers all outlets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseFilter {
+    private Short outletId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private ExpenseEntry.ExpenseType type;
+    private Long advanceToId;
+}
@@ -0,0 +1,91 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.PeriodClose;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PeriodCloseRepository extends JpaRepository<PeriodClose, PeriodClose.Key> {
+
+    /**
+     * Lets one close run at a time; readers and the period check of new
+     * entries are not blocked.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE period_closes IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForClose();
+
+    /**
+     * Waits for uncommitted entries and holds off new ones until the closing
+     * transaction commits, so the snapshot includes every entry of the period
+     * and no entry slips in after it.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sales_entries, expense_entries IN SHARE MODE", nativeQuery = true)
+    void lockEntries();
+
+    @Query("SELECT MAX(c.periodEnd) FROM PeriodClose c WHERE c.id.outletId = :outletId")
+    LocalDate findClosedThrough(@Param("outletId") Short outletId);
+
+    @Query("SELECT c.id.outletId AS outletId, MAX(c.periodEnd) AS closedThrough FROM PeriodClose c " +
+            "GROUP BY c.id.outletId")
+    List<ClosedThrough> findClosedThroughByOutlet();
+
+    /**
+     * The latest day every outlet has closed, null while any outlet has none.
+     */
+    @Query(value = "SELECT CASE WHEN COUNT(c.outlet_id) = COUNT(*) THEN MIN(c.closed_through) END " +
+            "FROM outlets o LEFT JOIN (SELECT outlet_id, MAX(period_end) AS closed_through " +
+            "FROM period_closes GROUP BY outlet_id) c ON c.outlet_id = o.id",
+            nativeQuery = true)
+    LocalDate findClosedThroughAllOutlets();
+
+    List<PeriodClose> findByIdOutletIdOrderByIdPeriodStart(Short outletId);
+
+    /**
+     * Removes the day closes a month close replaces, with their snapshots.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM period_closes c WHERE " +
+            "c.outlet_id = :outletId AND c.period_start >= :fromDate AND c.period_end <= :toDate",
+            nativeQuery = true)
+    int deleteWithin(@Param("outletId") Short outletId,
+                     @Param("fromDate") LocalDate fromDate,
+                     @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_period_snapshots " +
+            "(outlet_id, period_start, period_end, sales_rep_id, payment_type, total_amount, transaction_count) " +
+            "SELECT r.outlet_id, :fromDate, :toDate, r.sales_rep_id, r.payment_type, " +
+            "SUM(r.total_amount), SUM(r.transaction_count) FROM sales_daily_rollup r WHERE " +
+            "r.outlet_id = :outletId AND r.sales_date >= :fromDate AND r.sales_date <= :toDate " +
+            "GROUP BY r.outlet_id, r.sales_rep_id, r.payment_type",
+            nativeQuery = true)
+    int snapshotSales(@Param("outletId") Short outletId,
+                      @Param("fromDate") LocalDate fromDate,
+                      @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO expense_period_snapshots " +
+            "(outlet_id, period_start, period_end, type, advance_to_id, total_amount, entry_count) " +
+            "SELECT e.outlet_id, :fromDate, :toDate, e.type, e.advance_to_id, " +
+            "SUM(e.amount), COUNT(*) FROM expense_entries e WHERE " +
+            "e.outlet_id = :outletId AND e.date >= :fromDate AND e.date <= :toDate " +
+            "GROUP BY e.outlet_id, e.type, e.advance_to_id",
+            nativeQuery = true)
+    int snapshotExpenses(@Param("outletId") Short outletId,
+                         @Param("fromDate") LocalDate fromDate,
+                         @Param("toDate") LocalDate toDate);
+
+    interface ClosedThrough {
+        Short getOutletId();
+
+        LocalDate getClosedThrough();
+    }
+}
@@ -0,0 +1,371 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.PivotRequest;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A validated pivot over sales or expenses, compiled into one grouped query.
+ *
+ * Sales are summed from {@code sales_daily_rollup}, which already holds every
+ * sales dimension per day; expenses from {@code expense_entries}. Only column
+ * expressions from the fixed tables below are written into the SQL, and all
+ * values are bound as parameters.
+ *
+ * With a day, week or month dimension every bucket of the range is returned,
+ * with zero totals where nothing was recorded, for each combination of the
+ * other dimensions that has data. Weeks start on Monday; the first week or
+ * month bucket may start before {@code fromDate} but only counts data from it.
+ *
+ * Equal queries are equal objects, so a query also serves as its cache key.
+ */
+@Data
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PivotQuery {
+
+    private static final int MAX_DIMENSIONS = 4;
+
+    public enum Dimension {
+        OUTLET("outlet", null),
+        REP("rep", null),
+        PAYMENT_TYPE("paymentType", null),
+        EXPENSE_TYPE("expenseType", null),
+        DAY("day", "1 day"),
+        WEEK("week", "1 week"),
+        MONTH("month", "1 month");
+
+        private final String key;
+        // Bucket width of time dimensions, null for the others
+        private final String step;
+
+        Dimension(String key, String step) {
+            this.key = key;
+            this.step = step;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public boolean isTime() {
+            return step != null;
+        }
+
+        public LocalDate bucketStart(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+
+        public long bucketCount(LocalDate fromDate, LocalDate toDate) {
+            LocalDate first = bucketStart(fromDate);
+            switch (this) {
+                case WEEK:
+                    return ChronoUnit.WEEKS.between(first, toDate) + 1;
+                case MONTH:
+                    return ChronoUnit.MONTHS.between(first, toDate) + 1;
+                default:
+                    return ChronoUnit.DAYS.between(first, toDate) + 1;
+            }
+        }
+
+        public static Dimension of(String key) {
+            for (Dimension dimension : values()) {
+                if (dimension.key.equalsIgnoreCase(key)) {
+                    return dimension;
+                }
+            }
+            throw new RuntimeException("Unknown dimension: " + key
+                    + " (use outlet, rep, paymentType, expenseType, day, week or month)");
+        }
+    }
+
+    public enum Measure {
+        SUM("sum", "COALESCE(d.total, 0)"),
+        COUNT("count", "COALESCE(d.entries, 0)"),
+        AVG("avg", "ROUND(d.total / NULLIF(d.entries, 0), 2)");
+
+        private final String key;
+        private final String expression;
+
+        Measure(String key, String expression) {
+            this.key = key;
+            this.expression = expression;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Measure of(String key) {
+            for (Measure measure : values()) {
+                if (measure.key.equalsIgnoreCase(key)) {
+                    return measure;
+                }
+            }
+            throw new RuntimeException("Unknown measure: " + key + " (use sum, count or avg)");
+        }
+    }
+
+    private static final Map<PivotRequest.Source, Table> TABLES = new EnumMap<>(PivotRequest.Source.class);
+
+    static {
+        Table sales = new Table("sales_daily_rollup r", "JOIN users u ON u.id = r.sales_rep_id",
+                "r.sales_date", "r.sales_rep_id", "SUM(r.total_amount)", "SUM(r.transaction_count)");
+        sales.columns.put(Dimension.OUTLET, "r.outlet_id");
+        sales.columns.put(Dimension.REP, "u.username");
+        sales.columns.put(Dimension.PAYMENT_TYPE, "r.payment_type");
+        TABLES.put(PivotRequest.Source.SALES, sales);
+
+        // The rep of an expense is the employee an advance was paid to
+        Table expenses = new Table("expense_entries e", "LEFT JOIN users u ON u.id = e.advance_to_id",
+                "e.date", "e.advance_to_id", "SUM(e.amount)", "COUNT(*)");
+        expenses.columns.put(Dimension.OUTLET, "e.outlet_id");
+        expenses.columns.put(Dimension.REP, "u.username");
+        expenses.columns.put(Dimension.EXPENSE_TYPE, "e.type");
+        TABLES.put(PivotRequest.Source.EXPENSES, expenses);
+
+        for (Table table : TABLES.values()) {
+            table.columns.put(Dimension.DAY, table.date);
+            table.columns.put(Dimension.WEEK, "CAST(date_trunc('week', " + table.date + ") AS date)");
+            table.columns.put(Dimension.MONTH, "CAST(date_trunc('month', " + table.date + ") AS date)");
+        }
+    }
+
+    private final PivotRequest.Source source;
+    private final List<Dimension> dimensions;
+    private final List<Measure> measures;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    // Null for all outlets
+    private final Short outletId;
+    // Null for all reps
+    private final Long salesRepId;
+
+    /**
+     * Checks the request against the dimensions and measures its source
+     * supports.
+     */
+    public static PivotQuery of(PivotRequest request, Short outletId, Long salesRepId) {
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new RuntimeException("To date must not be before from date");
+        }
+
+        Table table = TABLES.get(request.getSource());
+        List<Dimension> dimensions = new ArrayList<>();
+        for (String key : request.getDimensions()) {
+            Dimension dimension = Dimension.of(key);
+            if (!table.columns.containsKey(dimension)) {
+                throw new RuntimeException("Dimension " + dimension.key + " is not available for "
+                        + request.getSource().name().toLowerCase());
+            }
+            if (dimensions.contains(dimension)) {
+                throw new RuntimeException("Dimension " + dimension.key + " is given twice");
+            }
+            if (dimension.isTime() && dimensions.stream().anyMatch(Dimension::isTime)) {
+                throw new RuntimeException("Only one of day, week or month can be used");
+            }
+            dimensions.add(dimension);
+        }
+        if (dimensions.size() > MAX_DIMENSIONS) {
+            throw new RuntimeException("At most " + MAX_DIMENSIONS + " dimensions can be used");
+        }
+
+        List<Measure> measures = new ArrayList<>();
+        for (String key : request.getMeasures()) {
+            Measure measure = Measure.of(key);
+            if (!measures.contains(measure)) {
+                measures.add(measure);
+            }
+        }
+
+        return new PivotQuery(request.getSource(), List.copyOf(dimensions), List.copyOf(measures),
+                request.getFromDate(), request.getToDate(), outletId, salesRepId);
+    }
+
+    /**
+     * Most rows the query can return, checked before it runs: with a day,
+     * week or month dimension every bucket is paired with every combination
+     * of the other dimensions, and all of them are built and sorted before
+     * the limit applies. Without one it is bounded by the data, and 0 is
+     * returned.
+     *
+     * @param outlets number of outlets
+     * @param reps    number of users
+     */
+    public long maxRows(long outlets, long reps) {
+        Dimension time = dimensions.stream().filter(Dimension::isTime).findFirst().orElse(null);
+        if (time == null) {
+            return 0;
+        }
+
+        long rows = time.bucketCount(fromDate, toDate);
+        for (Dimension dimension : dimensions) {
+            rows = multiply(rows, values(dimension, outlets, reps));
+        }
+        return rows;
+    }
+
+    // Distinct values a non-time dimension can take in the result
+    private long values(Dimension dimension, long outlets, long reps) {
+        switch (dimension) {
+            case OUTLET:
+                return outletId != null ? 1 : outlets;
+            case REP:
+                // Expenses without an advance have no rep
+                return salesRepId != null ? 1 : reps + (source == PivotRequest.Source.EXPENSES ? 1 : 0);
+            case PAYMENT_TYPE:
+                return SalesEntry.PaymentType.values().length;
+            case EXPENSE_TYPE:
+                return ExpenseEntry.ExpenseType.values().length;
+            default:
+                return 1;
+        }
+    }
+
+    private static long multiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public List<String> columns() {
+        List<String> columns = new ArrayList<>();
+        dimensions.forEach(dimension -> columns.add(dimension.key));
+        measures.forEach(measure -> columns.add(measure.key));
+        return columns;
+    }
+
+    public String sql(int limit) {
+        Table table = TABLES.get(source);
+
+        List<String> groupBy = new ArrayList<>();
+        StringBuilder data = new StringBuilder("SELECT ");
+        for (int i = 0; i < dimensions.size(); i++) {
+            String column = table.columns.get(dimensions.get(i));
+            data.append(column).append(" AS d").append(i).append(", ");
+            groupBy.add(column);
+        }
+        data.append(table.total).append(" AS total, ").append(table.entries).append(" AS entries FROM ")
+                .append(table.from);
+        if (dimensions.contains(Dimension.REP)) {
+            data.append(' ').append(table.repJoin);
+        }
+        data.append(" WHERE ").append(table.date).append(" >= :fromDate AND ")
+                .append(table.date).append(" <= :toDate");
+        if (outletId != null) {
+            data.append(" AND ").append(table.columns.get(Dimension.OUTLET)).append(" = :outletId");
+        }
+        if (salesRepId != null) {
+            data.append(" AND ").append(table.rep).append(" = :salesRepId");
+        }
+        if (!groupBy.isEmpty()) {
+            data.append(" GROUP BY ").append(String.join(", ", groupBy));
+        }
+
+        StringBuilder sql = new StringBuilder("WITH data AS (").append(data).append(')');
+        List<String> select = new ArrayList<>();
+        StringBuilder from = new StringBuilder();
+        Dimension time = dimensions.stream().filter(Dimension::isTime).findFirst().orElse(null);
+        if (time == null) {
+            for (int i = 0; i < dimensions.size(); i++) {
+                select.add("d.d" + i);
+            }
+            from.append(" FROM data d");
+        } else {
+            // Every bucket, for every combination of the other dimensions seen in the data
+            sql.append(", buckets AS (SELECT CAST(b AS date) AS bucket FROM generate_series(")
+                    .append("CAST(:bucketFrom AS date), CAST(:toDate AS date), interval '")
+                    .append(time.step).append("') b)");
+            List<String> keys = new ArrayList<>();
+            StringBuilder on = new StringBuilder();
+            for (int i = 0; i < dimensions.size(); i++) {
+                if (dimensions.get(i) == time) {
+                    select.add("b.bucket");
+                    on.append("d.d").append(i).append(" = b.bucket");
+                } else {
+                    keys.add("d" + i);
+                    select.add("k.d" + i);
+                }
+            }
+            for (String key : keys) {
+                on.append(" AND d.").append(key).append(" IS NOT DISTINCT FROM k.").append(key);
+            }
+            if (!keys.isEmpty()) {
+                sql.append(", keys AS (SELECT DISTINCT ").append(String.join(", ", keys)).append(" FROM data)");
+            }
+            from.append(" FROM buckets b");
+            if (!keys.isEmpty()) {
+                from.append(" CROSS JOIN keys k");
+            }
+            from.append(" LEFT JOIN data d ON ").append(on);
+        }
+        measures.forEach(measure -> select.add(measure.expression));
+
+        sql.append(" SELECT ").append(String.join(", ", select)).append(from);
+        if (!dimensions.isEmpty()) {
+            List<String> orderBy = new ArrayList<>();
+            for (int i = 1; i <= dimensions.size(); i++) {
+                orderBy.add(Integer.toString(i));
+            }
+            sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+        }
+        sql.append(" LIMIT ").append(limit);
+        return sql.toString();
+    }
+
+    public SqlParameterSource params() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fromDate", fromDate)
+                .addValue("toDate", toDate);
+        dimensions.stream().filter(Dimension::isTime).findFirst()
+                .ifPresent(time -> params.addValue("bucketFrom", time.bucketStart(fromDate)));
+        if (outletId != null) {
+            params.addValue("outletId", outletId);
+        }
+        if (salesRepId != null) {
+            params.addValue("salesRepId", salesRepId);
+        }
+        return params;
+    }
+
+    private static class Table {
+        private final String from;
+        private final String repJoin;
+        private final String date;
+        private final String rep;
+        private final String total;
+        private final String entries;
+        private final Map<Dimension, String> columns = new EnumMap<>(Dimension.class);
+
+        Table(String from, String repJoin, String date, String rep, String total, String entries) {
+            this.from = from;
+            this.repJoin = repJoin;
+            this.date = date;
+            this.rep = rep;
+            this.total = total;
+            this.entries = entries;
+        }
+    }
+}
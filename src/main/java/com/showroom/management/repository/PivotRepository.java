@@ -0,0 +1,48 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.service.OutletDictionary;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs {@link PivotQuery}s. Read-only, so they can be served by the read
+ * replica. Outlets are grouped by id and named afterwards.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class PivotRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OutletDictionary outletDictionary;
+
+    public PivotRepository(NamedParameterJdbcTemplate jdbcTemplate, OutletDictionary outletDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outletDictionary = outletDictionary;
+    }
+
+    public List<List<Object>> find(PivotQuery query, int limit) {
+        List<PivotQuery.Dimension> dimensions = query.getDimensions();
+        List<PivotQuery.Measure> measures = query.getMeasures();
+
+        return jdbcTemplate.query(query.sql(limit), query.params(), (rs, rowNum) -> {
+            List<Object> row = new ArrayList<>(dimensions.size() + measures.size());
+            int column = 1;
+            for (PivotQuery.Dimension dimension : dimensions) {
+                if (dimension == PivotQuery.Dimension.OUTLET) {
+                    row.add(outletDictionary.nameOf(rs.getShort(column++)));
+                } else {
+                    row.add(dimension.isTime() ? rs.getObject(column++, LocalDate.class) : rs.getString(column++));
+                }
+            }
+            for (PivotQuery.Measure measure : measures) {
+                row.add(measure == PivotQuery.Measure.COUNT ? (Object) rs.getLong(column++) : rs.getBigDecimal(column++));
+            }
+            return row;
+        });
+    }
+}
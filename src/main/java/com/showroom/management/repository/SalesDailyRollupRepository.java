@@ -0,0 +1,107 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollup.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup " +
+            "(sales_date, outlet_id, sales_rep_id, payment_type, total_amount, transaction_count) " +
+            "VALUES (:salesDate, :outletId, :salesRepId, :paymentType, :amount, :count) " +
+            "ON CONFLICT (sales_date, outlet_id, sales_rep_id, payment_type) DO UPDATE SET " +
+            "total_amount = sales_daily_rollup.total_amount + EXCLUDED.total_amount, " +
+            "transaction_count = sales_daily_rollup.transaction_count + EXCLUDED.transaction_count",
+            nativeQuery = true)
+    void addSales(@Param("salesDate") LocalDate salesDate,
+                  @Param("outletId") Short outletId,
+                  @Param("salesRepId") Long salesRepId,
+                  @Param("paymentType") String paymentType,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    /**
+     * Blocks concurrent {@link #addSales} calls until the rebuilding transaction
+     * commits, so bills saved during a rebuild are neither lost nor counted twice.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sales_daily_rollup IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_rollup r WHERE " +
+            "r.sales_date >= :fromDate AND r.sales_date <= :toDate",
+            nativeQuery = true)
+    int deleteRange(@Param("fromDate") LocalDate fromDate,
+                    @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup " +
+            "(sales_date, outlet_id, sales_rep_id, payment_type, total_amount, transaction_count) " +
+            "SELECT CAST(s.date_time AS date), s.outlet_id, s.sales_rep_id, s.payment_type, " +
+            "SUM(s.amount), COUNT(*) FROM sales_entries s WHERE " +
+            "s.date_time >= :fromDate AND s.date_time < :toDate " +
+            "GROUP BY CAST(s.date_time AS date), s.outlet_id, s.sales_rep_id, s.payment_type",
+            nativeQuery = true)
+    int rebuildRange(@Param("fromDate") LocalDateTime fromDate,
+                     @Param("toDate") LocalDateTime toDate);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT r.id.salesRepId AS salesRepId, SUM(r.totalAmount) AS totalAmount, " +
+            "SUM(r.transactionCount) AS transactionCount FROM SalesDailyRollup r WHERE " +
+            "r.id.salesRepId IN :salesRepIds AND " +
+            "r.id.salesDate >= :fromDate AND r.id.salesDate <= :toDate " +
+            "GROUP BY r.id.salesRepId")
+    List<SalesRepTotals> sumBySalesReps(@Param("salesRepIds") Collection<Long> salesRepIds,
+                                        @Param("fromDate") LocalDate fromDate,
+                                        @Param("toDate") LocalDate toDate);
+
+    /**
+     * Not read-only on purpose: seeding the leaderboard must see the latest
+     * sales, so this always runs on the primary.
+     */
+    @Query("SELECT r.id.salesDate AS salesDate, r.id.outletId AS outletId, r.id.salesRepId AS salesRepId, " +
+            "u.username AS salesRepUsername, u.fullName AS salesRepName, " +
+            "SUM(r.totalAmount) AS totalAmount, SUM(r.transactionCount) AS transactionCount " +
+            "FROM SalesDailyRollup r JOIN User u ON u.id = r.id.salesRepId WHERE " +
+            "r.id.salesDate >= :fromDate AND r.id.salesDate < :toDate " +
+            "GROUP BY r.id.salesDate, r.id.outletId, r.id.salesRepId, u.username, u.fullName")
+    List<DailySalesRepTotals> sumBySalesRepsPerDay(@Param("fromDate") LocalDate fromDate,
+                                                   @Param("toDate") LocalDate toDate);
+
+    interface SalesRepTotals {
+        Long getSalesRepId();
+
+        BigDecimal getTotalAmount();
+
+        Long getTransactionCount();
+    }
+
+    interface DailySalesRepTotals {
+        LocalDate getSalesDate();
+
+        Short getOutletId();
+
+        Long getSalesRepId();
+
+        String getSalesRepUsername();
+
+        String getSalesRepName();
+
+        BigDecimal getTotalAmount();
+
+        Long getTransactionCount();
+    }
+}
@@ -0,0 +1,45 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.PageCursor;
+import com.showroom.management.dto.SalesEntryDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Filtered sales reads built with {@link SqlQuery}, mixed into {@link SalesEntryRepository}.
+ */
+public interface SalesEntryQueries {
+
+    /**
+     * One keyset page ordered by {@code (date_time, id)} descending, starting
+     * after {@code cursor} (or from the newest row when it is null).
+     */
+    List<SalesEntryDTO> findFilteredSales(SalesFilter filter, PageCursor cursor, int limit);
+
+    /**
+     * All matching rows in listing order, read through a database cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<SalesEntryDTO> streamFilteredSales(SalesFilter filter);
+
+    /**
+     * The subset of {@code billNumbers} already stored, looked up in chunks.
+     */
+    Set<String> findExistingBillNumbers(Collection<String> billNumbers);
+
+    /**
+     * Passes every stored bill number to {@code action}, read through a
+     * database cursor. Must be called inside a transaction.
+     */
+    void forEachBillNumber(Consumer<String> action);
+
+    /**
+     * Moves the id sequence past ids assigned before {@code sales_entries}
+     * switched from an identity column to {@code sales_entries_seq}.
+     */
+    void alignIdSequence();
+}
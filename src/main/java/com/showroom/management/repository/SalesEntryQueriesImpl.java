@@ -0,0 +1,124 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.PageCursor;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.service.OutletDictionary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class SalesEntryQueriesImpl implements SalesEntryQueries {
+
+    private static final String SELECT_SALES = "SELECT s.id, u.username, u.full_name, s.outlet_id, s.date_time, " +
+            "s.bill_number, s.amount, s.payment_type, s.created_by, s.created_at " +
+            "FROM sales_entries s JOIN users u ON u.id = s.sales_rep_id";
+
+    private static final String ORDER_BY = "s.date_time DESC, s.id DESC";
+
+    private static final int FETCH_SIZE = 500;
+
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OutletDictionary outletDictionary;
+    private final RowMapper<SalesEntryDTO> salesRowMapper;
+
+    public SalesEntryQueriesImpl(DataSource dataSource, OutletDictionary outletDictionary) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.outletDictionary = outletDictionary;
+        this.salesRowMapper = this::mapSalesEntry;
+    }
+
+    @Override
+    public List<SalesEntryDTO> findFilteredSales(SalesFilter filter, PageCursor cursor, int limit) {
+        SqlQuery query = filteredSalesQuery(filter, cursor).limit(limit);
+        return jdbcTemplate.query(query.sql(), query.params(), salesRowMapper);
+    }
+
+    @Override
+    public Stream<SalesEntryDTO> streamFilteredSales(SalesFilter filter) {
+        SqlQuery query = filteredSalesQuery(filter, null);
+        return jdbcTemplate.queryForStream(query.sql(), query.params(), salesRowMapper);
+    }
+
+    @Override
+    public Set<String> findExistingBillNumbers(Collection<String> billNumbers) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(billNumbers);
+        for (int from = 0; from < all.size(); from += IN_LIST_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(from + IN_LIST_CHUNK, all.size()));
+            existing.addAll(jdbcTemplate.queryForList(
+                    "SELECT s.bill_number FROM sales_entries s WHERE s.bill_number IN (:billNumbers)",
+                    Map.of("billNumbers", chunk), String.class));
+        }
+        return existing;
+    }
+
+    @Override
+    public void forEachBillNumber(Consumer<String> action) {
+        jdbcTemplate.getJdbcTemplate().query("SELECT s.bill_number FROM sales_entries s",
+                (RowCallbackHandler) rs -> action.accept(rs.getString(1)));
+    }
+
+    @Override
+    public void alignIdSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(s.id) FROM sales_entries s", Map.of(), Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // The pooled optimizer hands out the block ending at the value nextval() returns
+        jdbcTemplate.queryForList("SELECT setval('sales_entries_seq', :maxId) " +
+                "WHERE (SELECT last_value FROM sales_entries_seq) < :maxId", Map.of("maxId", maxId));
+    }
+
+    private SalesEntryDTO mapSalesEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new SalesEntryDTO(
+                rs.getLong("id"),
+                rs.getString("username"),
+                rs.getString("full_name"),
+                outletDictionary.nameOf(rs.getShort("outlet_id")),
+                rs.getObject("date_time", LocalDateTime.class),
+                rs.getString("bill_number"),
+                rs.getBigDecimal("amount"),
+                SalesEntry.PaymentType.valueOf(rs.getString("payment_type")),
+                rs.getString("created_by"),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    static SqlQuery filteredSalesQuery(SalesFilter filter, PageCursor cursor) {
+        SqlQuery query = SqlQuery.select(SELECT_SALES)
+                .whereIfPresent("s.outlet_id = :outletId", "outletId", filter.getOutletId())
+                .whereIfPresent("s.sales_rep_id = :salesRepId", "salesRepId", filter.getSalesRepId())
+                .whereIfPresent("s.date_time >= :fromDate", "fromDate", filter.getFromDate())
+                .whereIfPresent("s.date_time <= :toDate", "toDate", filter.getToDate())
+                .whereIfPresent("s.payment_type = :paymentType", "paymentType",
+                        filter.getPaymentType() != null ? filter.getPaymentType().name() : null);
+
+        if (cursor != null) {
+            // Seek past the last row of the previous page
+            query.where("s.date_time <= :cursorDateTime AND (s.date_time < :cursorDateTime OR s.id < :cursorId)",
+                    "cursorDateTime", cursor.getPosition(), "cursorId", cursor.getId());
+        }
+
+        return query.orderBy(ORDER_BY);
+    }
+}
@@ -0,0 +1,23 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.SalesEntry;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for sales listings and exports. A null field means "not filtered";
+ * a null outlet covers all outlets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesFilter {
+    private Short outletId;
+    private LocalDateTime fromDate;
+    private LocalDateTime toDate;
+    private Long salesRepId;
+    private SalesEntry.PaymentType paymentType;
+}
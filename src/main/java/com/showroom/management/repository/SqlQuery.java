@@ -0,0 +1,79 @@
+package com.showroom.management.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small builder for filter queries that only emits the predicates that were
+ * actually supplied. Catch-all predicates such as {@code (:x IS NULL OR col = :x)}
+ * stop PostgreSQL from choosing an index, so optional filters are left out of
+ * the SQL entirely instead.
+ */
+public class SqlQuery {
+    private final String selectFrom;
+    private final List<String> predicates = new ArrayList<>();
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+    private String orderBy;
+    private Integer limit;
+
+    private SqlQuery(String selectFrom) {
+        this.selectFrom = selectFrom;
+    }
+
+    public static SqlQuery select(String selectFrom) {
+        return new SqlQuery(selectFrom);
+    }
+
+    /**
+     * Adds a predicate that is always applied. Parameter names and values
+     * are given as alternating pairs.
+     */
+    public SqlQuery where(String predicate, Object... namesAndValues) {
+        predicates.add(predicate);
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.addValue((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a single-parameter predicate only when the value is present.
+     */
+    public SqlQuery whereIfPresent(String predicate, String name, Object value) {
+        if (value != null) {
+            where(predicate, name, value);
+        }
+        return this;
+    }
+
+    public SqlQuery orderBy(String orderBy) {
+        this.orderBy = orderBy;
+        return this;
+    }
+
+    public SqlQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public String sql() {
+        StringBuilder sql = new StringBuilder(selectFrom);
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        if (orderBy != null) {
+            sql.append(" ORDER BY ").append(orderBy);
+        }
+        if (limit != null) {
+            sql.append(" LIMIT ").append(limit);
+        }
+        return sql.toString();
+    }
+
+    public SqlParameterSource params() {
+        return params;
+    }
+}
@@ -0,0 +1,22 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Username lookups by natural id, mixed into {@link UserRepository}. They are
+ * answered from the second-level cache once a user has been loaded, without
+ * a query.
+ */
+public interface UserQueries {
+
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Users with any of the given usernames; unknown usernames are left out.
+     */
+    List<User> findByUsernameIn(Collection<String> usernames);
+}
@@ -0,0 +1,46 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+// Natural-id loads need the transaction's session, also for callers without a transaction
+@Transactional(readOnly = true)
+public class UserQueriesImpl implements UserQueries {
+
+    private final EntityManager entityManager;
+
+    public UserQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return session().bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public List<User> findByUsernameIn(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return List.of();
+        }
+        // Callers key the result by username; ordered loading is only supported
+        // on dialects that bind the ids as one array parameter
+        return session().byMultipleNaturalId(User.class)
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(usernames)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
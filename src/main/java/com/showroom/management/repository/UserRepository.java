@@ -1,28 +1,35 @@
 package com.showroom.management.repository;
 
 import com.showroom.management.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserQueries {
 
+    // Results are cached until the users table is next written through Hibernate
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
     List<User> findByRole(User.Role role);
 
     List<User> findByOutlet(String outlet);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
     List<User> findByRoleAndOutlet(User.Role role, String outlet);
 
-    @Query("SELECT u FROM User u WHERE u.role = :role AND (:outlet = 'All Outlets' OR u.outlet = :outlet)")
-    List<User> findByRoleAndOutletFiltered(@Param("role") User.Role role, @Param("outlet") String outlet);
-
     boolean existsByUsername(String username);
 
     List<User> findByIsActiveTrue();
+
+    @Query("SELECT u.username FROM User u WHERE u.isActive = false")
+    List<String> findInactiveUsernames();
 }
\ No newline at end of file
@@ -1,15 +1,17 @@
 package com.showroom.management.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -22,26 +24,44 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    public static final String JWT_FILTER_TIMER = "showroom.auth.jwt";
+
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        String result = "anonymous";
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            JwtUtils.VerifiedToken token = (jwt != null) ? jwtUtils.verify(jwt) : null;
+            if (token != null) {
+                String username = token.getUsername();
+
+                UserDetails userDetails = (token.getPrincipal() != null)
+                        ? token.getPrincipal()
+                        : userDetailsService.loadUserByUsername(username);
+                if (!userDetails.isEnabled() || userDetailsService.isInactive(username)) {
+                    throw new DisabledException("User is inactive: " + username);
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                result = "authenticated";
+            } else if (jwt != null) {
+                result = "rejected";
             }
         } catch (Exception e) {
+            result = "rejected";
             log.error("Cannot set user authentication: {}", e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer(JWT_FILTER_TIMER, "result", result));
         }
 
         filterChain.doFilter(request, response);
@@ -56,4 +76,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         return null;
     }
-}
\ No newline at end of file
+}
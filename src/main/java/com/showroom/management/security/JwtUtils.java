@@ -1,59 +1,175 @@
 package com.showroom.management.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.showroom.management.entity.User;
+import com.showroom.management.service.OutletDictionary;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtUtils {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String OUTLET_CLAIM = "outlet";
+    private static final String FULL_NAME_CLAIM = "name";
+
     @Value("${app.jwtSecret:myVerySecretKeyForShowroomManagement123456789ABCDEFGHIJKLMNOP}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs:86400000}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwtVerifiedCacheSize:10000}")
+    private int verifiedCacheSize;
+
+    private Key key;
+    private JwtParser parser;
+
+    // SHA-256 of recently verified tokens, each kept until the token expires
+    private Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer digest, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.getExpiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(USER_ID_CLAIM, userPrincipal.getId())
+                .claim(ROLE_CLAIM, userPrincipal.getRole().name())
+                .claim(OUTLET_CLAIM, userPrincipal.getOutlet())
+                .claim(FULL_NAME_CLAIM, userPrincipal.getFullName())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return verify(authToken) != null;
+    }
+
+    /**
+     * Verifies the token once and returns its contents, or null if it is not
+     * valid. Tokens seen recently are answered from memory without re-checking
+     * the signature.
+     */
+    public VerifiedToken verify(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            return null;
+        }
+
+        ByteBuffer digest = digest(authToken);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached.getExpiresAt() > System.currentTimeMillis() ? cached : null;
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(authToken).getBody();
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), principalFrom(claims),
+                    claims.getExpiration().getTime());
+            verifiedTokens.put(digest, verified);
+            return verified;
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    // Tokens issued before the claims were added carry only the subject
+    private static UserDetailsImpl principalFrom(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        if (role == null || userId == null) {
+            return null;
+        }
+
+        User.Role userRole = User.Role.valueOf(role);
+        return new UserDetailsImpl(
+                userId.longValue(),
+                claims.getSubject(),
+                null,
+                claims.get(FULL_NAME_CLAIM, String.class),
+                // Older tokens name the all-outlets scope
+                OutletDictionary.scope(claims.get(OUTLET_CLAIM, String.class)),
+                userRole,
+                true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + userRole.name())));
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class VerifiedToken {
+        private final String username;
+        // Null when the token predates the role/outlet claims
+        private final UserDetailsImpl principal;
+        private final long expiresAt;
     }
 }
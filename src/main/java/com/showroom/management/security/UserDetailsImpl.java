@@ -15,16 +15,19 @@ public class UserDetailsImpl implements UserDetails {
     private String fullName;
     private String outlet;
     private User.Role role;
+    private boolean active;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserDetailsImpl(Long id, String username, String password, String fullName,
-                           String outlet, User.Role role, Collection<? extends GrantedAuthority> authorities) {
+                           String outlet, User.Role role, boolean active,
+                           Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.username = username;
         this.password = password;
         this.fullName = fullName;
         this.outlet = outlet;
         this.role = role;
+        this.active = active;
         this.authorities = authorities;
     }
 
@@ -40,6 +43,7 @@ public class UserDetailsImpl implements UserDetails {
                 user.getFullName(),
                 user.getOutlet(),
                 user.getRole(),
+                !Boolean.FALSE.equals(user.getIsActive()),
                 authorities);
     }
 
@@ -69,5 +73,5 @@ public class UserDetailsImpl implements UserDetails {
     public boolean isCredentialsNonExpired() { return true; }
 
     @Override
-    public boolean isEnabled() { return true; }
+    public boolean isEnabled() { return active; }
 }
\ No newline at end of file
@@ -2,25 +2,121 @@ package com.showroom.management.security;
 
 import com.showroom.management.entity.User;
 import com.showroom.management.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    // Bounded and expired by spring.cache.caffeine.spec; hit/miss counts are published as cache.gets
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    // Tokens carry the principal, so deactivation has to be checked without the database
+    private volatile Set<String> inactiveUsernames = ConcurrentHashMap.newKeySet();
+
+    // Local changes made while a reload runs, applied on top of what it read
+    private Map<String, Boolean> changedDuringReload;
+
+    /**
+     * Reloads the inactive users every {@code app.inactiveUsersRefreshMs}, so
+     * a user deactivated through another instance or in the database is
+     * refused here within that interval. Local changes apply at once.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.inactiveUsersRefreshMs:30000}",
+            initialDelayString = "${app.inactiveUsersRefreshMs:30000}")
+    public void reloadInactiveUsernames() {
+        synchronized (this) {
+            changedDuringReload = new HashMap<>();
+        }
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        try {
+            loaded.addAll(userRepository.findInactiveUsernames());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            changedDuringReload.forEach((username, active) -> apply(loaded, username, active));
+            changedDuringReload = null;
+            inactiveUsernames = loaded;
+        }
+    }
 
     @Override
     @Transactional
+    @Cacheable(cacheNames = USER_DETAILS_CACHE)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
 
         return UserDetailsImpl.build(user);
     }
-}
\ No newline at end of file
+
+    public boolean isInactive(String username) {
+        return inactiveUsernames.contains(username);
+    }
+
+    /**
+     * Drops the cached details of a user and records whether it is still
+     * active once the current transaction commits, so the next request cannot
+     * re-cache the state being replaced.
+     */
+    public void userChanged(String username, boolean active) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyChange(username, active);
+                }
+            });
+        } else {
+            applyChange(username, active);
+        }
+    }
+
+    private void applyChange(String username, boolean active) {
+        synchronized (this) {
+            apply(inactiveUsernames, username, active);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(username, active);
+            }
+        }
+
+        Cache cache = cacheManager.getCache(USER_DETAILS_CACHE);
+        if (cache != null) {
+            cache.evict(username);
+        }
+    }
+
+    private static void apply(Set<String> inactive, String username, boolean active) {
+        if (active) {
+            inactive.remove(username);
+        } else {
+            inactive.add(username);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.showroom.management.service;
+
+import com.showroom.management.repository.SalesEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over every stored bill number. A negative answer means the
+ * bill is certainly new, so the duplicate pre-check query can be skipped;
+ * a positive answer still needs an exact lookup. The primary key of
+ * {@code sales_bill_numbers} remains the final authority.
+ */
+@Component
+@Slf4j
+public class BillNumberIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final SalesEntryRepository salesEntryRepository;
+    private final int expectedBills;
+    private final Counter skippedChecks;
+    private final Counter exactChecks;
+
+    // Null until warmed; everything is reported as a possible hit meanwhile
+    private volatile BloomFilter filter;
+
+    // Filter being loaded by warm(), so concurrent inserts reach it too
+    private volatile BloomFilter building;
+
+    public BillNumberIndex(SalesEntryRepository salesEntryRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.sales.billIndexExpected:1000000}") int expectedBills) {
+        this.salesEntryRepository = salesEntryRepository;
+        this.expectedBills = expectedBills;
+        this.skippedChecks = meterRegistry.counter("showroom.sales.bill.precheck", "result", "skipped");
+        this.exactChecks = meterRegistry.counter("showroom.sales.bill.precheck", "result", "checked");
+    }
+
+    /**
+     * Loads all stored bill numbers. Bills added while warming are recorded
+     * in the new filter as well, so none are missed.
+     */
+    @Transactional(readOnly = true)
+    public void warm() {
+        long stored = salesEntryRepository.count();
+        BloomFilter warming = new BloomFilter(Math.max(expectedBills, stored * 2), FALSE_POSITIVE_RATE);
+        building = warming;
+        try {
+            salesEntryRepository.forEachBillNumber(warming::put);
+        } finally {
+            building = null;
+        }
+        filter = warming;
+        log.info("Bill number index warmed with {} bills ({} KB)", stored, warming.sizeInBytes() / 1024);
+    }
+
+    public void add(String billNumber) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(billNumber);
+        }
+        BloomFilter warming = building;
+        if (warming != null) {
+            warming.put(billNumber);
+        }
+    }
+
+    /**
+     * False only if the bill number is certainly not stored yet.
+     */
+    public boolean mightContain(String billNumber) {
+        BloomFilter current = filter;
+        boolean possible = current == null || current.mightContain(billNumber);
+        (possible ? exactChecks : skippedChecks).increment();
+        return possible;
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE, (size + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return bitCount / 8;
+        }
+
+        private static long hash(String value) {
+            long h = 1125899906842597L;
+            for (int i = 0; i < value.length(); i++) {
+                h = 31 * h + value.charAt(i);
+            }
+            return mix(h);
+        }
+
+        // MurmurHash3 finalizer
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe1a85ec3L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.showroom.management.service;
+
+import com.showroom.management.config.ReadReplicaRouting;
+import com.showroom.management.dto.DashboardStatsDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes dashboard stats and new sales to clients connected to
+ * {@code /api/stream/dashboard}.
+ *
+ * Changes are collected per outlet once their transaction commits and sent
+ * after {@code app.stream.debounceMs}, so a burst of entries results in one
+ * stats query per distinct dashboard view rather than one per entry and
+ * client. With a read replica the wait is at least as long as the replica
+ * may lag, so the stats include the change. Connections are async servlet
+ * requests and hold no thread while idle; all sends happen on a single
+ * scheduler thread.
+ */
+@Service
+@Slf4j
+public class DashboardPushService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(2099, 12, 31, 23, 59);
+
+    // More new rows than this in one window are left to the next full reload
+    private static final int MAX_PUSHED_SALES = 50;
+
+    private final DashboardStatsService dashboardStatsService;
+    private final long timeoutMs;
+    private final long debounceMs;
+    private final int maxConnections;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, List<SalesEntryDTO>> pendingOutlets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DashboardPushService(DashboardStatsService dashboardStatsService,
+                                @Value("${app.stream.timeoutMs:1800000}") long timeoutMs,
+                                @Value("${app.stream.debounceMs:1000}") long debounceMs,
+                                @Value("${app.stream.heartbeatMs:25000}") long heartbeatMs,
+                                @Value("${app.stream.maxConnections:2000}") int maxConnections,
+                                ObjectProvider<ReadReplicaRouting> readReplicaRouting) {
+        this.dashboardStatsService = dashboardStatsService;
+        this.timeoutMs = timeoutMs;
+        ReadReplicaRouting routing = readReplicaRouting.getIfAvailable();
+        this.debounceMs = routing != null ? Math.max(debounceMs, routing.maxStalenessMs()) : debounceMs;
+        this.maxConnections = maxConnections;
+        scheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        subscriptions.clear();
+    }
+
+    /**
+     * Opens a stream for an outlet (null for all) or, when
+     * {@code salesRepId} is set, for a single sales rep. The current stats
+     * are sent right away.
+     */
+    public SseEmitter subscribe(String outlet, Long salesRepId, String salesRepUsername,
+                                LocalDateTime fromDate, LocalDateTime toDate) {
+        if (subscriptions.size() >= maxConnections) {
+            throw new RuntimeException("Too many live dashboard connections");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(emitter,
+                outlet, salesRepId, salesRepUsername,
+                fromDate != null ? fromDate : EARLIEST,
+                toDate != null ? toDate : LATEST);
+
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+
+        // Registered before the stats are read so no change committed in
+        // between is missed; flushes wait for the snapshot to go out first
+        subscriptions.add(subscription);
+        synchronized (subscription) {
+            try {
+                emitter.send(SseEmitter.event().name("stats").data(stats(subscription), MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                subscriptions.remove(subscription);
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                subscriptions.remove(subscription);
+                throw e;
+            }
+        }
+        return emitter;
+    }
+
+    public void salesCreated(SalesEntryDTO sale) {
+        afterCommit(() -> changed(sale.getOutlet(), List.of(sale)));
+    }
+
+    /**
+     * Stats only; rows from bulk imports are not pushed one by one.
+     */
+    public void outletsChanged(Collection<String> outlets) {
+        afterCommit(() -> outlets.forEach(outlet -> changed(outlet, List.of())));
+    }
+
+    public void outletChanged(String outlet) {
+        outletsChanged(List.of(outlet));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void changed(String outlet, List<SalesEntryDTO> sales) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        pendingOutlets.compute(outlet, (key, pending) -> {
+            if (pending == null) {
+                pending = new ArrayList<>();
+                scheduler.schedule(() -> flush(key), debounceMs, TimeUnit.MILLISECONDS);
+            }
+            if (pending.size() + sales.size() <= MAX_PUSHED_SALES) {
+                pending.addAll(sales);
+            }
+            return pending;
+        });
+    }
+
+    private void flush(String outlet) {
+        List<SalesEntryDTO> sales = pendingOutlets.remove(outlet);
+        if (sales == null) {
+            return;
+        }
+
+        // Subscribers looking at the same view share one stats query
+        Map<String, DashboardStatsDTO> statsByView = new HashMap<>();
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.covers(outlet)) {
+                continue;
+            }
+            try {
+                DashboardStatsDTO stats = statsByView.computeIfAbsent(subscription.viewKey(), key -> stats(subscription));
+                List<SalesEntryDTO> visibleSales = sales.stream().filter(subscription::shows).toList();
+
+                synchronized (subscription) {
+                    subscription.emitter.send(SseEmitter.event().name("stats").data(stats, MediaType.APPLICATION_JSON));
+                    if (!visibleSales.isEmpty()) {
+                        subscription.emitter.send(SseEmitter.event().name("sales").data(visibleSales, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports it through onError as well
+                subscriptions.remove(subscription);
+            } catch (RuntimeException e) {
+                log.warn("Could not push dashboard update for {}: {}", outlet, e.getMessage());
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            try {
+                // Keeps proxies from closing idle streams and finds dead clients
+                subscription.emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                subscriptions.remove(subscription);
+            }
+        }
+    }
+
+    private DashboardStatsDTO stats(Subscription subscription) {
+        if (subscription.salesRepId != null) {
+            return dashboardStatsService.getSalesRepStats(
+                    subscription.salesRepId, subscription.fromDate, subscription.toDate);
+        }
+        return dashboardStatsService.getOutletStats(
+                subscription.outlet, subscription.fromDate, subscription.toDate);
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final String outlet;
+        private final Long salesRepId;
+        private final String salesRepUsername;
+        private final LocalDateTime fromDate;
+        private final LocalDateTime toDate;
+
+        Subscription(SseEmitter emitter, String outlet, Long salesRepId, String salesRepUsername,
+                     LocalDateTime fromDate, LocalDateTime toDate) {
+            this.emitter = emitter;
+            this.outlet = outlet;
+            this.salesRepId = salesRepId;
+            this.salesRepUsername = salesRepUsername;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+
+        boolean covers(String changedOutlet) {
+            return outlet == null || outlet.equals(changedOutlet);
+        }
+
+        boolean shows(SalesEntryDTO sale) {
+            return (salesRepUsername == null || salesRepUsername.equals(sale.getSalesRepUsername()))
+                    && !sale.getDateTime().isBefore(fromDate)
+                    && !sale.getDateTime().isAfter(toDate);
+        }
+
+        String viewKey() {
+            return outlet + "|" + salesRepId + "|" + fromDate + "|" + toDate;
+        }
+    }
+}
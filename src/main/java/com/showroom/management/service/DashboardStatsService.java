@@ -0,0 +1,126 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.DashboardStatsDTO;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.DashboardStatsRepository;
+import com.showroom.management.repository.DashboardStatsRepository.StatsBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Builds {@link DashboardStatsDTO} from grouped queries covering sales
+ * by payment type and expenses by type.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardStatsService {
+
+    private final DashboardStatsRepository dashboardStatsRepository;
+    private final SalesRollupService salesRollupService;
+    private final ParallelQueries parallelQueries;
+    private final OutletDictionary outletDictionary;
+
+    /**
+     * Sales and expenses of an outlet (null for all) are read concurrently,
+     * each in its own short read transaction, so no connection is held while
+     * waiting for the other.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DashboardStatsDTO getOutletStats(String outlet, LocalDateTime fromDate, LocalDateTime toDate) {
+        SalesRollupService.RangeSplit split = salesRollupService.split(fromDate, toDate);
+        LocalDate expenseFrom = fromDate.toLocalDate();
+        LocalDate expenseTo = toDate.toLocalDate();
+
+        // All outlets drops the outlet predicate instead of matching it with OR
+        Short outletId = outletDictionary.filterId(outlet);
+        boolean allOutlets = outletId == null;
+        Supplier<List<StatsBucket>> sales = allOutlets
+                ? () -> dashboardStatsRepository.getAllOutletsSalesBreakdown(
+                        split.getRollupFrom(), split.getRollupTo(),
+                        split.getHeadFrom(), split.getHeadTo(),
+                        split.getTailFrom(), split.getTailTo())
+                : () -> dashboardStatsRepository.getOutletSalesBreakdown(
+                        outletId,
+                        split.getRollupFrom(), split.getRollupTo(),
+                        split.getHeadFrom(), split.getHeadTo(),
+                        split.getTailFrom(), split.getTailTo());
+        Supplier<List<StatsBucket>> expenses = allOutlets
+                ? () -> dashboardStatsRepository.getAllOutletsExpenseBreakdown(expenseFrom, expenseTo)
+                : () -> dashboardStatsRepository.getOutletExpenseBreakdown(outletId, expenseFrom, expenseTo);
+
+        return parallelQueries.join(sales, expenses, (salesBuckets, expenseBuckets) -> {
+            List<StatsBucket> buckets = new ArrayList<>(salesBuckets);
+            buckets.addAll(expenseBuckets);
+            return assemble(buckets, true);
+        });
+    }
+
+    public DashboardStatsDTO getSalesRepStats(Long salesRepId, LocalDateTime fromDate, LocalDateTime toDate) {
+        SalesRollupService.RangeSplit split = salesRollupService.split(fromDate, toDate);
+
+        List<StatsBucket> buckets = dashboardStatsRepository.getSalesRepBreakdown(
+                salesRepId,
+                split.getRollupFrom(), split.getRollupTo(),
+                split.getHeadFrom(), split.getHeadTo(),
+                split.getTailFrom(), split.getTailTo());
+
+        // Sales reps don't see expenses or profit - just their sales performance
+        return assemble(buckets, false);
+    }
+
+    private DashboardStatsDTO assemble(List<StatsBucket> buckets, boolean includeExpenses) {
+        Map<SalesEntry.PaymentType, BigDecimal> salesByPaymentType = new EnumMap<>(SalesEntry.PaymentType.class);
+        Map<SalesEntry.PaymentType, Long> transactionsByPaymentType = new EnumMap<>(SalesEntry.PaymentType.class);
+        for (SalesEntry.PaymentType paymentType : SalesEntry.PaymentType.values()) {
+            salesByPaymentType.put(paymentType, BigDecimal.ZERO);
+            transactionsByPaymentType.put(paymentType, 0L);
+        }
+
+        Map<ExpenseEntry.ExpenseType, BigDecimal> expensesByType = new EnumMap<>(ExpenseEntry.ExpenseType.class);
+        if (includeExpenses) {
+            for (ExpenseEntry.ExpenseType type : ExpenseEntry.ExpenseType.values()) {
+                expensesByType.put(type, BigDecimal.ZERO);
+            }
+        }
+
+        BigDecimal totalSales = BigDecimal.ZERO;
+        BigDecimal totalExpenses = BigDecimal.ZERO;
+        long totalTransactions = 0L;
+
+        for (StatsBucket bucket : buckets) {
+            BigDecimal amount = bucket.getAmount() != null ? bucket.getAmount() : BigDecimal.ZERO;
+            long count = bucket.getEntryCount() != null ? bucket.getEntryCount() : 0L;
+
+            if (DashboardStatsRepository.SALES.equals(bucket.getCategory())) {
+                // Rollup and edge scans can both report the same payment type
+                SalesEntry.PaymentType paymentType = SalesEntry.PaymentType.valueOf(bucket.getBucket());
+                salesByPaymentType.merge(paymentType, amount, BigDecimal::add);
+                transactionsByPaymentType.merge(paymentType, count, Long::sum);
+                totalSales = totalSales.add(amount);
+                totalTransactions += count;
+            } else if (includeExpenses && DashboardStatsRepository.EXPENSE.equals(bucket.getCategory())) {
+                expensesByType.merge(ExpenseEntry.ExpenseType.valueOf(bucket.getBucket()), amount, BigDecimal::add);
+                totalExpenses = totalExpenses.add(amount);
+            }
+        }
+
+        // For sales reps "profit" is their sales contribution
+        BigDecimal netProfit = totalSales.subtract(totalExpenses);
+
+        return new DashboardStatsDTO(totalSales, totalExpenses, netProfit, totalTransactions,
+                salesByPaymentType, transactionsByPaymentType, expensesByType);
+    }
+}
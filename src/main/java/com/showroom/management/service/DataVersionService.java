@@ -0,0 +1,183 @@
+package com.showroom.management.service;
+
+import com.showroom.management.config.ReadReplicaRouting;
+import com.showroom.management.dto.DomainEventDTO;
+import com.showroom.management.repository.DomainEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-outlet counters that change whenever sales or expenses of an outlet
+ * are written, used to build ETags for the listing and dashboard endpoints.
+ *
+ * Versions live in memory and start over on restart, so every ETag also
+ * carries an id of this run.
+ *
+ * With a read replica, a read right after a write may still see the old
+ * data under the new version. Versions are therefore bumped a second time
+ * once the replica is certain to have caught up.
+ *
+ * Writes made through other instances are picked up from the domain event
+ * journal every {@code app.dataVersionSyncMs}, so an ETag stays valid for at
+ * most that long after another instance changed the outlet.
+ */
+@Service
+@Slf4j
+public class DataVersionService {
+
+    private static final int SYNC_BATCH_SIZE = 500;
+    // Leaves the rest of a large backlog to the next run
+    private static final int MAX_BATCHES_PER_SYNC = 20;
+
+    private final String runId = UUID.randomUUID().toString();
+    private final AtomicLong allOutletsVersion = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> outletVersions = new ConcurrentHashMap<>();
+    private final DomainEventRepository domainEventRepository;
+    private final TaskScheduler taskScheduler;
+    private final long staleReadMs;
+    // Last journal event synced; only touched by the scheduled sync
+    private Long lastEventId;
+    private boolean journalPositioned;
+
+    public DataVersionService(DomainEventRepository domainEventRepository,
+                              ObjectProvider<ReadReplicaRouting> readReplicaRouting,
+                              TaskScheduler taskScheduler) {
+        this.domainEventRepository = domainEventRepository;
+        this.taskScheduler = taskScheduler;
+        ReadReplicaRouting routing = readReplicaRouting.getIfAvailable();
+        this.staleReadMs = routing != null ? routing.maxStalenessMs() : 0L;
+    }
+
+    /**
+     * Bumps the outlet's version once the current transaction commits, so a
+     * new version is never paired with data read before the write.
+     */
+    public void outletChanged(String outlet) {
+        outletsChanged(Set.of(outlet));
+    }
+
+    public void outletsChanged(Collection<String> outlets) {
+        if (outlets.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(outlets);
+                }
+            });
+        } else {
+            committed(outlets);
+        }
+    }
+
+    /**
+     * All outlets (a null outlet) change with every write.
+     */
+    public long version(String outlet) {
+        if (outlet == null) {
+            return allOutletsVersion.get();
+        }
+        AtomicLong version = outletVersions.get(outlet);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * ETag for a response that depends only on the outlet's data and the
+     * given request details (user, path, query, format). It is weak because
+     * the same content may be sent gzip-compressed or not.
+     */
+    public String etag(String outlet, String... request) {
+        MessageDigest digest = sha256();
+        digest.update(runId.getBytes(StandardCharsets.UTF_8));
+        digest.update(Long.toString(version(outlet)).getBytes(StandardCharsets.UTF_8));
+        for (String part : request) {
+            digest.update((byte) 0);
+            if (part != null) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        byte[] hash = digest.digest();
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+    }
+
+    /**
+     * Bumps the versions of outlets that have journal events since the last
+     * sync. Events of this instance's own writes bump them once more, which
+     * only costs clients one full response.
+     */
+    @Scheduled(fixedDelayString = "${app.dataVersionSyncMs:5000}")
+    public void syncWithJournal() {
+        try {
+            if (!journalPositioned) {
+                // Versions start over with this run, so earlier events do not matter
+                lastEventId = domainEventRepository.findLatestId();
+                journalPositioned = true;
+                return;
+            }
+
+            Set<String> outlets = new HashSet<>();
+            for (int i = 0; i < MAX_BATCHES_PER_SYNC; i++) {
+                List<DomainEventDTO> events = domainEventRepository.findAfter(lastEventId, SYNC_BATCH_SIZE);
+                for (DomainEventDTO event : events) {
+                    if (event.getOutlet() != null) {
+                        outlets.add(event.getOutlet());
+                    }
+                }
+                if (!events.isEmpty()) {
+                    lastEventId = events.get(events.size() - 1).getId();
+                }
+                if (events.size() < SYNC_BATCH_SIZE) {
+                    break;
+                }
+            }
+            if (!outlets.isEmpty()) {
+                committed(outlets);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not sync data versions with the event journal: {}", e.getMessage());
+        }
+    }
+
+    private void committed(Collection<String> outlets) {
+        bump(outlets);
+        if (staleReadMs > 0) {
+            taskScheduler.schedule(() -> bump(outlets), Instant.now().plusMillis(staleReadMs));
+        }
+    }
+
+    private void bump(Collection<String> outlets) {
+        for (String outlet : outlets) {
+            outletVersions.computeIfAbsent(outlet, o -> new AtomicLong()).incrementAndGet();
+        }
+        allOutletsVersion.incrementAndGet();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
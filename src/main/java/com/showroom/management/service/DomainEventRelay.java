@@ -0,0 +1,85 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.DomainEventDTO;
+import com.showroom.management.repository.DomainEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Publishes new journal events to the configured {@link EventSink} in
+ * batches of {@code app.events.batchSize}, every
+ * {@code app.events.relayIntervalMs}.
+ *
+ * Each batch is published and its offset recorded in one transaction that
+ * holds the relay lock, so only one instance relays at a time and a failed
+ * batch is retried from the same offset. With {@code app.events.sink=none}
+ * nothing is relayed and the feed is the only way to read the journal.
+ */
+@Service
+@Slf4j
+public class DomainEventRelay {
+
+    // Leaves the rest of a large backlog to the next run
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final DomainEventRepository domainEventRepository;
+    private final EventSink eventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public DomainEventRelay(DomainEventRepository domainEventRepository,
+                            ObjectProvider<EventSink> eventSink,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.events.batchSize:500}") int batchSize) {
+        this.domainEventRepository = domainEventRepository;
+        this.eventSink = eventSink.getIfAvailable();
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.relayIntervalMs:1000}")
+    public void relay() {
+        if (eventSink == null) {
+            return;
+        }
+
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                Integer published = transactionTemplate.execute(status -> publishBatch());
+                if (published == null || published < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not publish domain events to {}: {}", eventSink.name(), e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+        if (!domainEventRepository.tryLockRelay()) {
+            return 0;
+        }
+
+        List<DomainEventDTO> events = domainEventRepository.findAfter(
+                domainEventRepository.findOffset(eventSink.name()), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            eventSink.publish(events);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        DomainEventDTO last = events.get(events.size() - 1);
+        domainEventRepository.saveOffset(eventSink.name(), last.getId());
+        log.debug("Published events {} to {} to {}", events.get(0).getId(), last.getId(), eventSink.name());
+        return events.size();
+    }
+}
@@ -0,0 +1,105 @@
+package com.showroom.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.showroom.management.dto.DomainEventDTO;
+import com.showroom.management.dto.ExpenseEntryDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.dto.UserDTO;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.entity.User;
+import com.showroom.management.repository.DomainEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Journals domain events in the transaction of the change they describe
+ * (transactional outbox): an event exists exactly when its change committed.
+ * {@link DomainEventRelay} publishes them to a sink, and consumers can also
+ * read them from {@code GET /api/events}.
+ */
+@Service
+public class DomainEventService {
+
+    public enum Type {
+        SALE_CREATED("SALE"),
+        EXPENSE_CREATED("EXPENSE"),
+        USER_CREATED("USER"),
+        USER_DEACTIVATED("USER");
+
+        private final String aggregateType;
+
+        Type(String aggregateType) {
+            this.aggregateType = aggregateType;
+        }
+    }
+
+    private final DomainEventRepository domainEventRepository;
+    private final ObjectMapper objectMapper;
+    private final int feedMaxLimit;
+
+    public DomainEventService(DomainEventRepository domainEventRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.events.feedMaxLimit:1000}") int feedMaxLimit) {
+        this.domainEventRepository = domainEventRepository;
+        this.objectMapper = objectMapper;
+        this.feedMaxLimit = feedMaxLimit;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void salesCreated(Collection<SalesEntry> salesEntries) {
+        if (salesEntries.isEmpty()) {
+            return;
+        }
+        domainEventRepository.append(salesEntries.stream()
+                .map(salesEntry -> event(Type.SALE_CREATED, salesEntry.getId(), salesEntry.getOutlet(),
+                        SalesEntryDTO.fromEntity(salesEntry)))
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseCreated(ExpenseEntry expenseEntry) {
+        domainEventRepository.append(List.of(event(Type.EXPENSE_CREATED, expenseEntry.getId(),
+                expenseEntry.getOutlet(), ExpenseEntryDTO.fromEntity(expenseEntry))));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userCreated(User user) {
+        domainEventRepository.append(List.of(event(Type.USER_CREATED, user.getId(), user.getOutlet(),
+                UserDTO.fromEntity(user))));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userDeactivated(User user) {
+        domainEventRepository.append(List.of(event(Type.USER_DEACTIVATED, user.getId(), user.getOutlet(),
+                UserDTO.fromEntity(user))));
+    }
+
+    /**
+     * Up to {@code limit} events after the event {@code after} (from the
+     * first event when null). Pass the id of the last event received to
+     * continue.
+     */
+    @Transactional(readOnly = true)
+    public List<DomainEventDTO> getEvents(Long after, int limit) {
+        if (limit < 1 || limit > feedMaxLimit) {
+            throw new RuntimeException("Limit must be between 1 and " + feedMaxLimit);
+        }
+        return domainEventRepository.findAfter(after, limit);
+    }
+
+    private DomainEventRepository.NewEvent event(Type type, Long aggregateId, String outlet, Object payload) {
+        try {
+            return new DomainEventRepository.NewEvent(type.name(), type.aggregateType, aggregateId, outlet,
+                    objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.DomainEventDTO;
+
+import java.util.List;
+
+/**
+ * Where {@link DomainEventRelay} publishes the event journal, chosen with
+ * {@code app.events.sink}.
+ *
+ * Delivery is at least once: a batch may be published again if the relay
+ * stops before it records its offset, so receivers should skip event ids
+ * they have already seen.
+ */
+public interface EventSink {
+
+    /**
+     * Names the sink's offset in {@code domain_event_offsets}.
+     */
+    String name();
+
+    /**
+     * Publishes the events in order, or throws to have the same batch retried.
+     */
+    void publish(List<DomainEventDTO> events) throws Exception;
+}
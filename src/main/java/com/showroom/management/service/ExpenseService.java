@@ -3,16 +3,19 @@ package com.showroom.management.service;
 import com.showroom.management.dto.*;
 import com.showroom.management.entity.ExpenseEntry;
 import com.showroom.management.entity.User;
+import com.showroom.management.exception.PeriodClosedException;
 import com.showroom.management.repository.ExpenseEntryRepository;
+import com.showroom.management.repository.ExpenseFilter;
 import com.showroom.management.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -21,10 +24,15 @@ public class ExpenseService {
 
     private final ExpenseEntryRepository expenseEntryRepository;
     private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final DashboardPushService dashboardPushService;
+    private final PivotService pivotService;
+    private final OutletDictionary outletDictionary;
+    private final DomainEventService domainEventService;
 
     public ExpenseEntryDTO createExpenseEntry(ExpenseEntryDTO dto, String createdBy, String userOutlet) {
         ExpenseEntry expenseEntry = new ExpenseEntry();
-        expenseEntry.setOutlet(userOutlet.equals("All Outlets") ? "Outlet 1" : userOutlet);
+        expenseEntry.setOutlet(userOutlet == null ? "Outlet 1" : userOutlet);
         expenseEntry.setDate(dto.getDate());
         expenseEntry.setType(dto.getType());
         expenseEntry.setAmount(dto.getAmount());
@@ -37,18 +45,45 @@ public class ExpenseService {
             expenseEntry.setAdvanceTo(advanceTo);
         }
 
-        ExpenseEntry saved = expenseEntryRepository.save(expenseEntry);
+        ExpenseEntry saved;
+        try {
+            saved = expenseEntryRepository.saveAndFlush(expenseEntry);
+        } catch (DataAccessException e) {
+            throw PeriodClosedException.isCausedBy(e) ? new PeriodClosedException(expenseEntry.getOutlet()) : e;
+        }
+        domainEventService.expenseCreated(saved);
+        dataVersionService.outletChanged(saved.getOutlet());
+        dashboardPushService.outletChanged(saved.getOutlet());
+        pivotService.expenseChanged(saved);
         return ExpenseEntryDTO.fromEntity(saved);
     }
 
-    public List<ExpenseEntryDTO> getFilteredExpenses(String outlet, LocalDate fromDate,
-                                                     LocalDate toDate, ExpenseEntry.ExpenseType type,
-                                                     String advanceToUsername) {
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseEntryDTO> getFilteredExpenses(String outlet, LocalDate fromDate,
+                                                           LocalDate toDate, ExpenseEntry.ExpenseType type,
+                                                           String advanceToUsername,
+                                                           String cursor, Integer pageSize) {
+
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        int size = CursorPage.clampPageSize(pageSize);
+
+        ExpenseFilter filter = buildFilter(outlet, fromDate, toDate, type, advanceToUsername);
+
+        // One extra row tells us whether there is a next page
+        List<ExpenseEntryDTO> expenses = expenseEntryRepository.findFilteredExpenses(filter, pageCursor, size + 1);
 
-        // Convert parameters to safe values
-        String safeOutlet = (outlet == null || outlet.trim().isEmpty()) ? "All Outlets" : outlet;
-        LocalDate safeFromDate = (fromDate == null) ? LocalDate.of(1900, 1, 1) : fromDate;
-        LocalDate safeToDate = (toDate == null) ? LocalDate.of(2099, 12, 31) : toDate;
+        return CursorPage.of(expenses, size, Function.identity(),
+                e -> new PageCursor(e.getDate().atStartOfDay(), e.getId()));
+    }
+
+    /**
+     * Only the filters actually supplied end up in the query; a null outlet
+     * means no outlet filter.
+     */
+    @Transactional(readOnly = true)
+    public ExpenseFilter buildFilter(String outlet, LocalDate fromDate, LocalDate toDate,
+                                     ExpenseEntry.ExpenseType type, String advanceToUsername) {
+        Short outletId = outletDictionary.filterId(outlet);
 
         // Handle advance to user
         Long advanceToId = null;
@@ -59,15 +94,7 @@ public class ExpenseService {
             }
         }
 
-        // Handle expense type
-        String typeStr = (type != null) ? type.name() : null;
-
-        List<ExpenseEntry> expenses = expenseEntryRepository.findFilteredExpensesNative(
-                safeOutlet, safeFromDate, safeToDate, typeStr, advanceToId);
-
-        return expenses.stream()
-                .map(ExpenseEntryDTO::fromEntity)
-                .collect(Collectors.toList());
+        return new ExpenseFilter(outletId, fromDate, toDate, type, advanceToId);
     }
 
 //    public BigDecimal getTotalExpenses(String outlet, LocalDate fromDate, LocalDate toDate) {
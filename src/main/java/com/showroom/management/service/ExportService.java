@@ -0,0 +1,118 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.ExpenseEntryDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.repository.ExpenseEntryRepository;
+import com.showroom.management.repository.ExpenseFilter;
+import com.showroom.management.repository.SalesEntryRepository;
+import com.showroom.management.repository.SalesFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes sales and expense listings as CSV straight from a database cursor,
+ * so memory use does not depend on the number of exported rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Flush regularly so the client starts receiving data right away
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final SalesEntryRepository salesEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+
+    public void exportSales(OutputStream outputStream, SalesFilter filter) throws IOException {
+        Writer writer = newWriter(outputStream);
+        writer.write("Date,Sales Rep,Bill Number,Amount,Payment Type,Outlet,Created By\n");
+
+        try (Stream<SalesEntryDTO> rows = salesEntryRepository.streamFilteredSales(filter)) {
+            int count = 0;
+            for (Iterator<SalesEntryDTO> it = rows.iterator(); it.hasNext(); ) {
+                SalesEntryDTO row = it.next();
+                writeRow(writer,
+                        row.getDateTime().format(DATE_TIME_FORMAT),
+                        row.getSalesRepName(),
+                        row.getBillNumber(),
+                        amount(row.getAmount()),
+                        row.getPaymentType().name(),
+                        row.getOutlet(),
+                        row.getCreatedBy());
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    public void exportExpenses(OutputStream outputStream, ExpenseFilter filter) throws IOException {
+        Writer writer = newWriter(outputStream);
+        writer.write("Date,Type,Amount,Description,Advance To,Outlet,Created By\n");
+
+        try (Stream<ExpenseEntryDTO> rows = expenseEntryRepository.streamFilteredExpenses(filter)) {
+            int count = 0;
+            for (Iterator<ExpenseEntryDTO> it = rows.iterator(); it.hasNext(); ) {
+                ExpenseEntryDTO row = it.next();
+                writeRow(writer,
+                        row.getDate().toString(),
+                        row.getType().name(),
+                        amount(row.getAmount()),
+                        row.getDescription(),
+                        row.getAdvanceToName(),
+                        row.getOutlet(),
+                        row.getCreatedBy());
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static Writer newWriter(OutputStream outputStream) {
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    private static String amount(BigDecimal amount) {
+        return amount != null ? amount.toPlainString() : "";
+    }
+
+    private static void writeRow(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Keep spreadsheet apps from evaluating user-entered text as a formula
+        String safe = "=+-@\t".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.indexOf(',') >= 0 || safe.indexOf('"') >= 0 || safe.indexOf('\n') >= 0 || safe.indexOf('\r') >= 0) {
+            return '"' + safe.replace("\"", "\"\"") + '"';
+        }
+        return safe;
+    }
+}
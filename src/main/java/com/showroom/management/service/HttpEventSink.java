@@ -0,0 +1,65 @@
+package com.showroom.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.showroom.management.dto.DomainEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch as an NDJSON body to {@code app.events.http.url}. Any
+ * response other than 2xx fails the batch, which is then sent again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.sink", havingValue = "http")
+public class HttpEventSink implements EventSink {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ObjectMapper objectMapper;
+    private final RestClient restClient;
+
+    public HttpEventSink(ObjectMapper objectMapper,
+                         @Value("${app.events.http.url}") String url,
+                         @Value("${app.events.http.timeout:10s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) timeout.toMillis());
+        requestFactory.setReadTimeout((int) timeout.toMillis());
+        this.restClient = RestClient.builder()
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public void publish(List<DomainEventDTO> events) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (DomainEventDTO event : events) {
+            body.write(objectMapper.writeValueAsBytes(event));
+            body.write('\n');
+        }
+
+        restClient.post()
+                .contentType(NDJSON)
+                // Lets the receiver recognise a batch it has already taken
+                .header("X-First-Event-Id", events.get(0).getId().toString())
+                .header("X-Last-Event-Id", events.get(events.size() - 1).getId().toString())
+                .body(body.toByteArray())
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,61 @@
+package com.showroom.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.showroom.management.dto.DomainEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a file, one JSON object per line. The default sink.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.sink", havingValue = "file", matchIfMissing = true)
+public class NdjsonFileEventSink implements EventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public NdjsonFileEventSink(ObjectMapper objectMapper,
+                               @Value("${app.events.file:events.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<DomainEventDTO> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (DomainEventDTO event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // On disk before the relay moves its offset past these events
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.showroom.management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory map between outlet names and the small ids stored in every
+ * table. Loaded at startup and reloaded when a name or id is not known yet,
+ * e.g. an outlet added by another instance.
+ *
+ * Reads go through JDBC rather than Hibernate, so that a lookup from an
+ * {@link com.showroom.management.entity.OutletConverter} during a flush does
+ * not reenter the session.
+ *
+ * "All Outlets" is not an outlet: a null outlet means no outlet filter.
+ */
+@Component
+@Slf4j
+public class OutletDictionary implements SmartInitializingSingleton {
+
+    /**
+     * How the UI names the all-outlets scope. Accepted in requests and shown
+     * for users without an outlet, never stored.
+     */
+    public static final String ALL_OUTLETS = "All Outlets";
+
+    // Ids start at 1, so filtering by this id matches nothing
+    public static final short NO_OUTLET = 0;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Entries entries = new Entries(Map.of(), Map.of());
+
+    public OutletDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The outlet a request is scoped to: null for none, blank or "All Outlets".
+     */
+    public static String scope(String outlet) {
+        return (outlet == null || outlet.isBlank() || ALL_OUTLETS.equals(outlet)) ? null : outlet;
+    }
+
+    /**
+     * How an outlet scope is shown, "All Outlets" for null.
+     */
+    public static String label(String outlet) {
+        return (outlet == null) ? ALL_OUTLETS : outlet;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+        log.info("Outlet dictionary loaded with {} outlets", entries.ids.size());
+    }
+
+    public int size() {
+        return entries.ids.size();
+    }
+
+    public Optional<Short> findId(String name) {
+        Short id = entries.ids.get(name);
+        if (id == null) {
+            id = reload().ids.get(name);
+        }
+        return Optional.ofNullable(id);
+    }
+
+    public Short idOf(String name) {
+        return findId(name).orElseThrow(() -> new RuntimeException("Unknown outlet: " + name));
+    }
+
+    /**
+     * The id to filter an outlet scope by: null (no filter) for all outlets,
+     * {@link #NO_OUTLET} for a name that is no outlet.
+     */
+    public Short filterId(String outlet) {
+        String scoped = scope(outlet);
+        return (scoped == null) ? null : findId(scoped).orElse(NO_OUTLET);
+    }
+
+    public String nameOf(Short id) {
+        String name = entries.names.get(id);
+        if (name == null) {
+            name = reload().names.get(id);
+        }
+        if (name == null) {
+            throw new IllegalStateException("Unknown outlet id: " + id);
+        }
+        return name;
+    }
+
+    /**
+     * Adds the outlet unless it exists, within the caller's transaction.
+     * Always asks the database, so an outlet whose creating transaction
+     * rolled back is created again.
+     */
+    public String register(String name) {
+        jdbcTemplate.update("INSERT INTO outlets (name) VALUES (?) ON CONFLICT DO NOTHING", name);
+        Short id = jdbcTemplate.queryForObject("SELECT o.id FROM outlets o WHERE o.name = ?", Short.class, name);
+
+        Entries current = entries;
+        Map<String, Short> ids = new HashMap<>(current.ids);
+        Map<Short, String> names = new HashMap<>(current.names);
+        ids.put(name, id);
+        names.put(id, name);
+        entries = new Entries(ids, names);
+        return name;
+    }
+
+    private Entries reload() {
+        Map<String, Short> ids = new HashMap<>();
+        Map<Short, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT o.id, o.name FROM outlets o", rs -> {
+            ids.put(rs.getString("name"), rs.getShort("id"));
+            names.put(rs.getShort("id"), rs.getString("name"));
+        });
+        Entries loaded = new Entries(ids, names);
+        entries = loaded;
+        return loaded;
+    }
+
+    private static final class Entries {
+        private final Map<String, Short> ids;
+        private final Map<Short, String> names;
+
+        Entries(Map<String, Short> ids, Map<Short, String> names) {
+            this.ids = ids;
+            this.names = names;
+        }
+    }
+}
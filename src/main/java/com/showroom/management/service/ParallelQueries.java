@@ -0,0 +1,97 @@
+package com.showroom.management.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs two independent reads at the same time: the first on the application
+ * task executor (virtual threads when {@code spring.threads.virtual.enabled}
+ * is on), the second on the calling thread. The call only returns once both
+ * have finished, also when one of them fails.
+ *
+ * Each read takes its own connection, so callers must not hold one in an
+ * open transaction while waiting. The number of concurrent forks is capped
+ * by {@code app.parallelQueryLimit}; beyond that the reads simply run one
+ * after the other, which keeps bursts from draining the connection pool.
+ */
+@Component
+public class ParallelQueries {
+
+    private final AsyncTaskExecutor executor;
+    private final Semaphore forks;
+
+    public ParallelQueries(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                           @Value("${app.parallelQueryLimit:4}") int parallelQueryLimit) {
+        this.executor = executor;
+        this.forks = new Semaphore(parallelQueryLimit);
+    }
+
+    public <A, B, R> R join(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combiner) {
+        if (!forks.tryAcquire()) {
+            return combiner.apply(first.get(), second.get());
+        }
+
+        try {
+            Future<A> forked;
+            try {
+                forked = executor.submit(first::get);
+            } catch (TaskRejectedException e) {
+                return combiner.apply(first.get(), second.get());
+            }
+
+            B secondResult;
+            try {
+                secondResult = second.get();
+            } catch (RuntimeException | Error e) {
+                // Don't leave the forked read running past this call
+                awaitQuietly(forked);
+                throw e;
+            }
+            return combiner.apply(await(forked), secondResult);
+        } finally {
+            forks.release();
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void awaitQuietly(Future<?> future) {
+        try {
+            await(future);
+        } catch (RuntimeException | Error ignored) {
+            // The caller is already failing with the other read's exception
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.showroom.management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of {@code sales_entries} and
+ * {@code expense_entries} ahead of the calendar (see
+ * {@code db/migration/V2__partition_sales_and_expenses.sql}).
+ *
+ * Runs at startup and daily. Creates the current and the next
+ * {@code app.partitions.monthsAhead} months, and gives months that ended up
+ * in a default partition (back-dated or far-future entries) one of their own.
+ */
+@Service
+@Slf4j
+public class PartitionMaintenanceService {
+
+    // Partitioned table -> partition key
+    private static final Map<String, String> PARTITIONED_TABLES = Map.of(
+            "sales_entries", "date_time",
+            "expense_entries", "date");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       @Value("${app.partitions.monthsAhead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(cron = "${app.partitions.cron:0 30 2 * * *}")
+    public void createUpcomingPartitions() {
+        PARTITIONED_TABLES.forEach(this::createPartitions);
+    }
+
+    private void createPartitions(String table, String keyColumn) {
+        try {
+            SortedSet<LocalDate> months = new TreeSet<>(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT CAST(date_trunc('month', " + keyColumn + ") AS date) FROM " + table + "_default",
+                    LocalDate.class));
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                months.add(current.plusMonths(i).atDay(1));
+            }
+
+            for (LocalDate month : months) {
+                Boolean created = jdbcTemplate.queryForObject("SELECT create_monthly_partition(?, ?, ?)",
+                        Boolean.class, table, keyColumn, month);
+                if (Boolean.TRUE.equals(created)) {
+                    log.info("Created partition of {} for {}", table, YearMonth.from(month));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not create partitions of {}: {}", table, e.getMessage());
+        }
+    }
+}
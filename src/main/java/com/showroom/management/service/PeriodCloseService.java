@@ -0,0 +1,132 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.PeriodCloseDTO;
+import com.showroom.management.entity.PeriodClose;
+import com.showroom.management.exception.PeriodClosedException;
+import com.showroom.management.repository.PeriodCloseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closes the books of an outlet for a day or a month.
+ *
+ * Closing freezes the period's sales by rep and payment type and its expenses
+ * by type and advance recipient into snapshot rows, which the dashboard sums
+ * instead of scanning the period again. From then on the database rejects
+ * entries on or before the latest closed day of the outlet.
+ *
+ * Closes of an outlet are contiguous: each day or month continues where the
+ * previous close ended. Closing a month replaces the day closes inside it, so
+ * a year is read from at most twelve snapshots per rep.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class PeriodCloseService {
+
+    private final PeriodCloseRepository periodCloseRepository;
+    private final OutletDictionary outletDictionary;
+
+    public PeriodCloseDTO closeDay(String outlet, LocalDate date, String closedBy) {
+        if (date.isAfter(LocalDate.now())) {
+            throw new RuntimeException("Cannot close a future date");
+        }
+
+        Short outletId = outletDictionary.idOf(outlet);
+        lock();
+        LocalDate closedThrough = periodCloseRepository.findClosedThrough(outletId);
+        if (closedThrough != null && !date.isAfter(closedThrough)) {
+            throw new PeriodClosedException(outlet, closedThrough);
+        }
+        requireContiguous(outlet, closedThrough, date);
+
+        return close(outlet, outletId, date, date, closedBy);
+    }
+
+    /**
+     * Closes a month that has ended, taking over any day closes inside it.
+     */
+    public PeriodCloseDTO closeMonth(String outlet, YearMonth month, String closedBy) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        if (end.isAfter(LocalDate.now())) {
+            throw new RuntimeException(month + " has not ended yet");
+        }
+
+        Short outletId = outletDictionary.idOf(outlet);
+        lock();
+        LocalDate closedThrough = periodCloseRepository.findClosedThrough(outletId);
+        boolean monthClosed = periodCloseRepository.findById(new PeriodClose.Key(outletId, start))
+                .map(periodClose -> periodClose.getPeriodEnd().equals(end))
+                .orElse(false);
+        if (monthClosed) {
+            throw new PeriodClosedException(outlet, closedThrough);
+        }
+        requireContiguous(outlet, closedThrough, start);
+
+        // Entries of closed days cannot change, so the month snapshot equals their sum
+        int replaced = periodCloseRepository.deleteWithin(outletId, start, end);
+        if (replaced > 0) {
+            log.info("Closing {} of {} replaces {} day closes", month, outlet, replaced);
+        }
+        return close(outlet, outletId, start, end, closedBy);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PeriodCloseDTO> getPeriodCloses(String outlet) {
+        return outletDictionary.findId(outlet)
+                .map(periodCloseRepository::findByIdOutletIdOrderByIdPeriodStart)
+                .orElse(List.of())
+                .stream()
+                .map(periodClose -> PeriodCloseDTO.fromEntity(periodClose, outlet))
+                .toList();
+    }
+
+    /**
+     * The latest closed day of every outlet that has closed any period.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, LocalDate> getClosedThrough() {
+        Map<String, LocalDate> closedThrough = new HashMap<>();
+        for (PeriodCloseRepository.ClosedThrough row : periodCloseRepository.findClosedThroughByOutlet()) {
+            closedThrough.put(outletDictionary.nameOf(row.getOutletId()), row.getClosedThrough());
+        }
+        return closedThrough;
+    }
+
+    /**
+     * One close at a time, and none while entries are being written, so the
+     * snapshots hold every committed entry of the period.
+     */
+    private void lock() {
+        periodCloseRepository.lockForClose();
+        periodCloseRepository.lockEntries();
+    }
+
+    private void requireContiguous(String outlet, LocalDate closedThrough, LocalDate start) {
+        if (closedThrough != null && start.isAfter(closedThrough.plusDays(1))) {
+            throw new RuntimeException("Close " + outlet + " from " + closedThrough.plusDays(1) + " first");
+        }
+    }
+
+    private PeriodCloseDTO close(String outlet, Short outletId, LocalDate start, LocalDate end, String closedBy) {
+        PeriodClose periodClose = periodCloseRepository.saveAndFlush(new PeriodClose(
+                new PeriodClose.Key(outletId, start), end, closedBy, LocalDateTime.now()));
+        int sales = periodCloseRepository.snapshotSales(outletId, start, end);
+        int expenses = periodCloseRepository.snapshotExpenses(outletId, start, end);
+
+        log.info("Closed {} for {} to {}: {} sales and {} expense snapshot rows",
+                outlet, start, end, sales, expenses);
+        return PeriodCloseDTO.fromEntity(periodClose, outlet);
+    }
+}
@@ -0,0 +1,177 @@
+package com.showroom.management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.showroom.management.config.ReadReplicaRouting;
+import com.showroom.management.dto.PivotRequest;
+import com.showroom.management.dto.PivotResultDTO;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.PeriodCloseRepository;
+import com.showroom.management.repository.PivotQuery;
+import com.showroom.management.repository.PivotRepository;
+import com.showroom.management.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grouped analytics over sales and expenses (see {@link PivotQuery}).
+ *
+ * Pivots that end on or before the day their outlet (every outlet, for an
+ * all-outlets pivot) is closed through are cached. The database rejects
+ * entries on closed days, so such a pivot is the same on every instance and
+ * a write elsewhere cannot leave a cached copy stale. A rollup rebuild can
+ * still correct closed days; it drops the affected entries of this instance
+ * once committed (and again when a read replica has caught up).
+ */
+@Service
+public class PivotService {
+
+    private final PivotRepository pivotRepository;
+    private final PeriodCloseRepository periodCloseRepository;
+    private final OutletDictionary outletDictionary;
+    private final UserRepository userRepository;
+    private final TaskScheduler taskScheduler;
+    private final long staleReadMs;
+    private final int maxRows;
+    private final Cache<PivotQuery, PivotResultDTO> closedPivots;
+
+    // Changes on every invalidation; results computed across one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PivotService(PivotRepository pivotRepository,
+                        PeriodCloseRepository periodCloseRepository,
+                        OutletDictionary outletDictionary,
+                        UserRepository userRepository,
+                        ObjectProvider<ReadReplicaRouting> readReplicaRouting,
+                        TaskScheduler taskScheduler,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.analytics.maxRows:10000}") int maxRows,
+                        @Value("${app.analytics.cacheSize:500}") long cacheSize,
+                        @Value("${app.analytics.cacheTtl:1h}") Duration cacheTtl) {
+        this.pivotRepository = pivotRepository;
+        this.periodCloseRepository = periodCloseRepository;
+        this.outletDictionary = outletDictionary;
+        this.userRepository = userRepository;
+        this.taskScheduler = taskScheduler;
+        ReadReplicaRouting routing = readReplicaRouting.getIfAvailable();
+        this.staleReadMs = routing != null ? routing.maxStalenessMs() : 0L;
+        this.maxRows = maxRows;
+        this.closedPivots = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, closedPivots, "pivots");
+    }
+
+    /**
+     * @param outlet     null for all outlets
+     * @param salesRepId null for all reps
+     */
+    public PivotResultDTO pivot(PivotRequest request, String outlet, Long salesRepId) {
+        PivotQuery query = PivotQuery.of(request, outletDictionary.filterId(outlet), salesRepId);
+        // Refuse a time series too long to return before building it
+        if (query.maxRows(outletDictionary.size(), userRepository.count()) > maxRows) {
+            throw new RuntimeException("Pivot can have more than " + maxRows
+                    + " rows, narrow the date range, use a longer time bucket or fewer dimensions");
+        }
+        // Closes are never undone, so a cached pivot stays cacheable
+        PivotResultDTO cached = closedPivots.getIfPresent(query);
+        if (cached != null) {
+            return cached;
+        }
+        // Read before the pivot: a replica that has the close has every entry it covers
+        boolean closed = isClosedThrough(query.getOutletId(), query.getToDate());
+
+        long invalidationsBefore = invalidations.get();
+        List<List<Object>> rows = pivotRepository.find(query, maxRows + 1);
+        if (rows.size() > maxRows) {
+            throw new RuntimeException("Pivot has more than " + maxRows
+                    + " rows, narrow the date range or use fewer dimensions");
+        }
+
+        PivotResultDTO result = new PivotResultDTO(query.columns(), rows);
+        if (closed && invalidations.get() == invalidationsBefore) {
+            closedPivots.put(query, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param outletId null for all outlets
+     */
+    private boolean isClosedThrough(Short outletId, LocalDate date) {
+        LocalDate closedThrough = (outletId == null)
+                ? periodCloseRepository.findClosedThroughAllOutlets()
+                : periodCloseRepository.findClosedThrough(outletId);
+        return closedThrough != null && !date.isAfter(closedThrough);
+    }
+
+    public void salesChanged(Collection<SalesEntry> salesEntries) {
+        Map<Short, LocalDate> earliest = new HashMap<>();
+        for (SalesEntry salesEntry : salesEntries) {
+            earliest.merge(outletDictionary.idOf(salesEntry.getOutlet()), salesEntry.getDateTime().toLocalDate(),
+                    (a, b) -> a.isBefore(b) ? a : b);
+        }
+        earliest.forEach((outletId, date) -> changed(PivotRequest.Source.SALES, outletId, date));
+    }
+
+    public void expenseChanged(ExpenseEntry expenseEntry) {
+        changed(PivotRequest.Source.EXPENSES, outletDictionary.idOf(expenseEntry.getOutlet()),
+                expenseEntry.getDate());
+    }
+
+    /**
+     * Null bounds mean the whole rollup was rebuilt.
+     */
+    public void salesRollupRebuilt(LocalDate fromDate) {
+        changed(PivotRequest.Source.SALES, null, fromDate);
+    }
+
+    private void changed(PivotRequest.Source source, Short outletId, LocalDate fromDate) {
+        if (fromDate != null && !fromDate.isBefore(LocalDate.now())) {
+            // Today and later are never closed, so never cached
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(source, outletId, fromDate);
+                }
+            });
+        } else {
+            committed(source, outletId, fromDate);
+        }
+    }
+
+    private void committed(PivotRequest.Source source, Short outletId, LocalDate fromDate) {
+        invalidate(source, outletId, fromDate);
+        if (staleReadMs > 0) {
+            taskScheduler.schedule(() -> invalidate(source, outletId, fromDate), Instant.now().plusMillis(staleReadMs));
+        }
+    }
+
+    private void invalidate(PivotRequest.Source source, Short outletId, LocalDate fromDate) {
+        invalidations.incrementAndGet();
+        closedPivots.asMap().keySet().removeIf(query -> query.getSource() == source
+                && (fromDate == null || !query.getToDate().isBefore(fromDate))
+                && (outletId == null || query.getOutletId() == null || outletId.equals(query.getOutletId())));
+    }
+}
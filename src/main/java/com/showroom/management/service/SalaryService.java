@@ -1,29 +1,33 @@
 package com.showroom.management.service;
 
 import com.showroom.management.dto.*;
-import com.showroom.management.entity.SalesEntry;
-import com.showroom.management.entity.ExpenseEntry;
 import com.showroom.management.entity.User;
 import com.showroom.management.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+// Statements read sales and advances concurrently, each in its own read transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
 public class SalaryService {
 
     private final UserRepository userRepository;
-    private final SalesEntryRepository salesEntryRepository;
+    private final UserService userService;
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
     private final ExpenseEntryRepository expenseEntryRepository;
+    private final ParallelQueries parallelQueries;
 
     public SalaryStatementDTO generateSalaryStatement(String employeeUsername,
                                                       BigDecimal incentivePercentage,
@@ -34,37 +38,88 @@ public class SalaryService {
         User employee = userRepository.findByUsername(employeeUsername)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
 
-        // Get sales data for the period
-        LocalDateTime fromDateTime = fromDate.atStartOfDay();
-        LocalDateTime toDateTime = toDate.atTime(23, 59, 59);
+        return generateStatements(List.of(employee), incentivePercentage, fromDate, toDate, baseSalary).get(0);
+    }
 
-        List<SalesEntry> salesEntries = salesEntryRepository.findBySalesRepAndDateRange(
-                employeeUsername, fromDateTime, toDateTime);
+    /**
+     * Payroll run for every sales rep of an outlet (null for all).
+     * Inactive reps are only included if they have sales or advances in the period.
+     */
+    public List<SalaryStatementDTO> generateSalaryStatements(String outlet,
+                                                             BigDecimal incentivePercentage,
+                                                             LocalDate fromDate,
+                                                             LocalDate toDate,
+                                                             BigDecimal baseSalary) {
 
-        BigDecimal totalSales = salesEntries.stream()
-                .map(SalesEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<User> salesReps = userService.findSalesReps(outlet);
+        if (salesReps.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> activeUsernames = salesReps.stream()
+                .filter(u -> !Boolean.FALSE.equals(u.getIsActive()))
+                .map(User::getUsername)
+                .collect(Collectors.toSet());
+
+        return generateStatements(salesReps, incentivePercentage, fromDate, toDate, baseSalary).stream()
+                .filter(statement -> statement.getTransactionCount() > 0
+                        || !statement.getAdvances().isEmpty()
+                        || activeUsernames.contains(statement.getEmployeeUsername()))
+                .collect(Collectors.toList());
+    }
+
+    // One grouped sales query and one advances query, whatever the number of employees
+    private List<SalaryStatementDTO> generateStatements(List<User> employees,
+                                                        BigDecimal incentivePercentage,
+                                                        LocalDate fromDate,
+                                                        LocalDate toDate,
+                                                        BigDecimal baseSalary) {
+
+        List<Long> employeeIds = employees.stream().map(User::getId).collect(Collectors.toList());
+
+        // Statements cover whole days, so they can be summed from the daily rollup
+        return parallelQueries.join(
+                () -> salesDailyRollupRepository.sumBySalesReps(employeeIds, fromDate, toDate),
+                () -> expenseEntryRepository.findAdvancesByEmployeesAndDateRange(employeeIds, fromDate, toDate),
+                (sales, advances) -> {
+                    Map<Long, SalesDailyRollupRepository.SalesRepTotals> salesTotals = sales.stream()
+                            .collect(Collectors.toMap(SalesDailyRollupRepository.SalesRepTotals::getSalesRepId,
+                                    Function.identity()));
+                    Map<String, List<ExpenseEntryDTO>> advancesByEmployee = advances.stream()
+                            .collect(Collectors.groupingBy(ExpenseEntryDTO::getAdvanceToUsername));
+
+                    return employees.stream()
+                            .map(employee -> buildStatement(employee,
+                                    salesTotals.get(employee.getId()),
+                                    advancesByEmployee.getOrDefault(employee.getUsername(), List.of()),
+                                    incentivePercentage, fromDate, toDate, baseSalary))
+                            .collect(Collectors.toList());
+                });
+    }
+
+    private SalaryStatementDTO buildStatement(User employee,
+                                              SalesDailyRollupRepository.SalesRepTotals sales,
+                                              List<ExpenseEntryDTO> advances,
+                                              BigDecimal incentivePercentage,
+                                              LocalDate fromDate,
+                                              LocalDate toDate,
+                                              BigDecimal baseSalary) {
+
+        BigDecimal totalSales = (sales != null) ? sales.getTotalAmount() : BigDecimal.ZERO;
+        long transactionCount = (sales != null) ? sales.getTransactionCount() : 0L;
 
         // Calculate incentive
         BigDecimal incentiveAmount = totalSales
                 .multiply(incentivePercentage)
                 .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
 
-        // Get advances for the period
-        List<ExpenseEntry> advances = expenseEntryRepository.findAdvancesByEmployeeAndDateRange(
-                employeeUsername, fromDateTime, toDateTime);
-
         BigDecimal totalAdvances = advances.stream()
-                .map(ExpenseEntry::getAmount)
+                .map(ExpenseEntryDTO::getAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // Calculate net salary
         BigDecimal netSalary = baseSalary.add(incentiveAmount).subtract(totalAdvances);
 
-        List<ExpenseEntryDTO> advanceDTOs = advances.stream()
-                .map(ExpenseEntryDTO::fromEntity)
-                .collect(Collectors.toList());
-
         return new SalaryStatementDTO(
                 employee.getFullName(),
                 employee.getUsername(),
@@ -73,12 +128,12 @@ public class SalaryService {
                 toDate,
                 baseSalary,
                 totalSales,
-                (long) salesEntries.size(),
+                transactionCount,
                 incentivePercentage,
                 incentiveAmount,
                 totalAdvances,
                 netSalary,
-                advanceDTOs
+                advances
         );
     }
-}
\ No newline at end of file
+}
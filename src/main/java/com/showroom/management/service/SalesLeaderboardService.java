@@ -0,0 +1,409 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.LeaderboardDTO;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.SalesDailyRollupRepository;
+import com.showroom.management.repository.SalesEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory sales rep rankings per outlet (and all outlets together) for today,
+ * this week (from Monday) and this month.
+ *
+ * Seeded from {@code sales_daily_rollup} at startup and every
+ * {@code app.leaderboard.refreshCron}, and updated with every sale once its
+ * transaction commits. Each board keeps its reps sorted by total, so reading
+ * the top N walks N entries and runs no SQL; a sale costs one re-insert.
+ * A board starts over empty when its period rolls over.
+ *
+ * The periodic refresh picks up sales written by other instances and
+ * rollup rebuilds. Sales of this instance that commit while it runs are
+ * counted exactly once: after loading, the refresh checks which of them its
+ * rollup snapshot already saw, adds the others, and swaps the boards in
+ * while no sale is being applied.
+ */
+@Service
+@Slf4j
+public class SalesLeaderboardService {
+
+    // Highest total first; more bills, then the lower id, break ties
+    private static final Comparator<Standing> RANKING = Comparator
+            .comparing((Standing standing) -> standing.totalSales).reversed()
+            .thenComparing(Comparator.comparingLong((Standing standing) -> standing.transactions).reversed())
+            .thenComparingLong(standing -> standing.salesRepId);
+
+    public enum Period {
+        TODAY, WEEK, MONTH;
+
+        public LocalDate start(LocalDate today) {
+            switch (this) {
+                case WEEK:
+                    return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return today.withDayOfMonth(1);
+                default:
+                    return today;
+            }
+        }
+
+        // Exclusive
+        public LocalDate end(LocalDate start) {
+            switch (this) {
+                case WEEK:
+                    return start.plusWeeks(1);
+                case MONTH:
+                    return start.plusMonths(1);
+                default:
+                    return start.plusDays(1);
+            }
+        }
+    }
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final SalesEntryRepository salesEntryRepository;
+    private final OutletDictionary outletDictionary;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final ConcurrentMap<Long, SalesRepName> salesRepNames = new ConcurrentHashMap<>();
+
+    // Sales are applied under the read lock; refresh() swaps the boards under the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // Recorded sales whose transactions have not completed yet
+    private final Set<RecordedSales> inFlight = ConcurrentHashMap.newKeySet();
+
+    private volatile Rankings rankings = new Rankings();
+
+    // Set while refresh() loads new rankings
+    private volatile Reload reload;
+
+    public SalesLeaderboardService(SalesDailyRollupRepository salesDailyRollupRepository,
+                                   SalesEntryRepository salesEntryRepository,
+                                   OutletDictionary outletDictionary,
+                                   PlatformTransactionManager transactionManager) {
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+        this.salesEntryRepository = salesEntryRepository;
+        this.outletDictionary = outletDictionary;
+        // One snapshot for the rollup and the check of which sales it saw.
+        // Not read-only, so it runs on the primary that the sales commit to.
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Rebuilds all boards from the rollup with one aggregate query over the
+     * days the current periods span.
+     */
+    @Scheduled(cron = "${app.leaderboard.refreshCron:0 0 * * * *}")
+    public synchronized void refresh() {
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = today;
+        LocalDate toDate = today;
+        for (Period period : Period.values()) {
+            LocalDate start = period.start(today);
+            fromDate = start.isBefore(fromDate) ? start : fromDate;
+            LocalDate end = period.end(start);
+            toDate = end.isAfter(toDate) ? end : toDate;
+        }
+
+        Reload loading = new Reload();
+        reload = loading;
+        try {
+            LocalDate from = fromDate;
+            LocalDate to = toDate;
+            Integer rows = snapshotTransaction.execute(status -> {
+                int count = 0;
+                for (SalesDailyRollupRepository.DailySalesRepTotals totals
+                        : salesDailyRollupRepository.sumBySalesRepsPerDay(from, to)) {
+                    salesRepNames.put(totals.getSalesRepId(),
+                            new SalesRepName(totals.getSalesRepUsername(), totals.getSalesRepName()));
+                    loading.rankings.add(totals.getSalesDate(), outletDictionary.nameOf(totals.getOutletId()),
+                            totals.getSalesRepId(), totals.getTotalAmount(), totals.getTransactionCount(), today);
+                    count++;
+                }
+                swap(loading, today);
+                return count;
+            });
+            log.debug("Sales leaderboard refreshed from {} rollup rows ({} to {})", rows, fromDate, toDate.minusDays(1));
+        } finally {
+            reload = null;
+        }
+    }
+
+    /**
+     * Publishes the loaded rankings. Sales committed during the load are
+     * added unless the rollup snapshot already counted them; sales still in
+     * flight that it counted are marked, so their commit skips the new boards.
+     */
+    private void swap(Reload loading, LocalDate today) {
+        swapLock.writeLock().lock();
+        try {
+            List<RecordedSales> committed = new ArrayList<>(loading.committed);
+            List<RecordedSales> pending = new ArrayList<>(inFlight);
+            Set<String> billNumbers = new HashSet<>();
+            for (RecordedSales recorded : committed) {
+                billNumbers.addAll(recorded.billNumbers());
+            }
+            for (RecordedSales recorded : pending) {
+                billNumbers.addAll(recorded.billNumbers());
+            }
+            Set<String> counted = billNumbers.isEmpty()
+                    ? Set.of() : salesEntryRepository.findExistingBillNumbers(billNumbers);
+
+            for (RecordedSales recorded : committed) {
+                for (SalesEntry salesEntry : recorded.salesEntries) {
+                    if (!counted.contains(salesEntry.getBillNumber())) {
+                        add(loading.rankings, salesEntry, today);
+                    }
+                }
+            }
+            for (RecordedSales recorded : pending) {
+                // A transaction's sales are all visible to the snapshot or none are
+                if (counted.contains(recorded.salesEntries.iterator().next().getBillNumber())) {
+                    recorded.countedIn = loading.rankings;
+                }
+            }
+
+            rankings = loading.rankings;
+            reload = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the sale once the current transaction commits.
+     */
+    public void recordSale(SalesEntry salesEntry) {
+        recordSales(List.of(salesEntry));
+    }
+
+    public void recordSales(Collection<SalesEntry> salesEntries) {
+        if (salesEntries.isEmpty()) {
+            return;
+        }
+        RecordedSales recorded = new RecordedSales(List.copyOf(salesEntries));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(recorded);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    completed(recorded, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            completed(recorded, true);
+        }
+    }
+
+    /**
+     * The top {@code limit} reps of an outlet (null for all) in the current
+     * period.
+     */
+    public LeaderboardDTO getLeaderboard(Period period, String outlet, int limit) {
+        LocalDate today = LocalDate.now();
+        String board = OutletDictionary.label(outlet);
+
+        List<Standing> top = rankings.top(period, board, limit, today);
+        List<LeaderboardDTO.Entry> entries = new ArrayList<>(top.size());
+        for (Standing standing : top) {
+            SalesRepName name = salesRepNames.get(standing.salesRepId);
+            entries.add(new LeaderboardDTO.Entry(entries.size() + 1, standing.salesRepId,
+                    name != null ? name.username : null, name != null ? name.fullName : null,
+                    standing.totalSales, standing.transactions));
+        }
+
+        LocalDate start = period.start(today);
+        return new LeaderboardDTO(period.name(), board, start, period.end(start), entries);
+    }
+
+    private void completed(RecordedSales recorded, boolean committed) {
+        LocalDate today = LocalDate.now();
+        swapLock.readLock().lock();
+        try {
+            inFlight.remove(recorded);
+            if (!committed) {
+                return;
+            }
+
+            Rankings current = rankings;
+            if (recorded.countedIn != current) {
+                for (SalesEntry salesEntry : recorded.salesEntries) {
+                    add(current, salesEntry, today);
+                }
+            }
+            Reload loading = reload;
+            if (loading != null) {
+                loading.committed.add(recorded);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void add(Rankings target, SalesEntry salesEntry, LocalDate today) {
+        Long salesRepId = salesEntry.getSalesRep().getId();
+        salesRepNames.put(salesRepId, new SalesRepName(
+                salesEntry.getSalesRep().getUsername(), salesEntry.getSalesRep().getFullName()));
+        target.add(salesEntry.getDateTime().toLocalDate(), salesEntry.getOutlet(), salesRepId,
+                salesEntry.getAmount(), 1, today);
+    }
+
+    /**
+     * Sales recorded in one transaction.
+     */
+    private static final class RecordedSales {
+        private final List<SalesEntry> salesEntries;
+
+        // Rankings that already include these sales
+        private volatile Rankings countedIn;
+
+        RecordedSales(List<SalesEntry> salesEntries) {
+            this.salesEntries = salesEntries;
+        }
+
+        List<String> billNumbers() {
+            return salesEntries.stream().map(SalesEntry::getBillNumber).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Rankings being loaded, and the sales committed meanwhile.
+     */
+    private static final class Reload {
+        private final Rankings rankings = new Rankings();
+        private final Collection<RecordedSales> committed = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * One board per period and outlet.
+     */
+    private static class Rankings {
+
+        private final Map<Period, ConcurrentMap<String, Board>> boards = new EnumMap<>(Period.class);
+
+        Rankings() {
+            for (Period period : Period.values()) {
+                boards.put(period, new ConcurrentHashMap<>());
+            }
+        }
+
+        void add(LocalDate date, String outlet, Long salesRepId, BigDecimal amount, long transactions,
+                 LocalDate today) {
+            for (Period period : Period.values()) {
+                ConcurrentMap<String, Board> periodBoards = boards.get(period);
+                periodBoards.computeIfAbsent(outlet, o -> new Board(period))
+                        .add(date, salesRepId, amount, transactions, today);
+                periodBoards.computeIfAbsent(OutletDictionary.ALL_OUTLETS, o -> new Board(period))
+                        .add(date, salesRepId, amount, transactions, today);
+            }
+        }
+
+        List<Standing> top(Period period, String outlet, int limit, LocalDate today) {
+            Board board = boards.get(period).get(outlet);
+            return board != null ? board.top(limit, today) : List.of();
+        }
+    }
+
+    private static class Board {
+
+        private final Period period;
+        private final Map<Long, Standing> standings = new HashMap<>();
+        private final TreeSet<Standing> ranking = new TreeSet<>(RANKING);
+        private LocalDate start;
+
+        Board(Period period) {
+            this.period = period;
+        }
+
+        synchronized void add(LocalDate date, Long salesRepId, BigDecimal amount, long transactions,
+                              LocalDate today) {
+            rollOver(today);
+            if (date.isBefore(start) || !date.isBefore(period.end(start))) {
+                return;
+            }
+
+            Standing previous = standings.get(salesRepId);
+            Standing updated = (previous == null)
+                    ? new Standing(salesRepId, amount, transactions)
+                    : new Standing(salesRepId, previous.totalSales.add(amount), previous.transactions + transactions);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            ranking.add(updated);
+            standings.put(salesRepId, updated);
+        }
+
+        synchronized List<Standing> top(int limit, LocalDate today) {
+            rollOver(today);
+            List<Standing> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<Standing> iterator = ranking.iterator();
+            while (top.size() < limit && iterator.hasNext()) {
+                top.add(iterator.next());
+            }
+            return top;
+        }
+
+        private void rollOver(LocalDate today) {
+            LocalDate current = period.start(today);
+            if (!current.equals(start)) {
+                start = current;
+                standings.clear();
+                ranking.clear();
+            }
+        }
+    }
+
+    private static final class Standing {
+        private final Long salesRepId;
+        private final BigDecimal totalSales;
+        private final long transactions;
+
+        Standing(Long salesRepId, BigDecimal totalSales, long transactions) {
+            this.salesRepId = salesRepId;
+            // Same scale as the rollup, whether seeded or added from a request
+            this.totalSales = totalSales.setScale(2, RoundingMode.HALF_UP);
+            this.transactions = transactions;
+        }
+    }
+
+    private static final class SalesRepName {
+        private final String username;
+        private final String fullName;
+
+        SalesRepName(String username, String fullName) {
+            this.username = username;
+            this.fullName = fullName;
+        }
+    }
+}
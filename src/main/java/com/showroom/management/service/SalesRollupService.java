@@ -0,0 +1,156 @@
+package com.showroom.management.service;
+
+import com.showroom.management.entity.SalesDailyRollup;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.SalesDailyRollupRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains and reads the {@code sales_daily_rollup} table.
+ *
+ * Whole days inside a requested range are read from the rollup; only the
+ * partial days at either edge of the range are scanned in {@code sales_entries}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class SalesRollupService {
+
+    // PostgreSQL timestamps have microsecond precision
+    private static final LocalTime LAST_INSTANT_OF_DAY = LocalTime.of(23, 59, 59, 999_999_000);
+
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(2099, 12, 31);
+
+    private static final LocalDateTime EMPTY_WINDOW_FROM = LATEST_DATE.atStartOfDay();
+    private static final LocalDateTime EMPTY_WINDOW_TO = EARLIEST_DATE.atStartOfDay();
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final PivotService pivotService;
+    private final OutletDictionary outletDictionary;
+
+    public void recordSale(SalesEntry salesEntry) {
+        salesDailyRollupRepository.addSales(
+                salesEntry.getDateTime().toLocalDate(),
+                outletDictionary.idOf(salesEntry.getOutlet()),
+                salesEntry.getSalesRep().getId(),
+                salesEntry.getPaymentType().name(),
+                salesEntry.getAmount(),
+                1);
+    }
+
+    /**
+     * Adds many bills with one upsert per rollup row instead of one per bill.
+     */
+    public void recordSales(Collection<SalesEntry> salesEntries) {
+        Map<SalesDailyRollup.Key, SalesDailyRollup> totals = new HashMap<>();
+        for (SalesEntry salesEntry : salesEntries) {
+            SalesDailyRollup.Key key = new SalesDailyRollup.Key(
+                    salesEntry.getDateTime().toLocalDate(),
+                    outletDictionary.idOf(salesEntry.getOutlet()),
+                    salesEntry.getSalesRep().getId(),
+                    salesEntry.getPaymentType());
+            SalesDailyRollup total = totals.computeIfAbsent(key,
+                    k -> new SalesDailyRollup(k, BigDecimal.ZERO, 0L));
+            total.setTotalAmount(total.getTotalAmount().add(salesEntry.getAmount()));
+            total.setTransactionCount(total.getTransactionCount() + 1);
+        }
+
+        for (SalesDailyRollup total : totals.values()) {
+            SalesDailyRollup.Key key = total.getId();
+            salesDailyRollupRepository.addSales(
+                    key.getSalesDate(),
+                    key.getOutletId(),
+                    key.getSalesRepId(),
+                    key.getPaymentType().name(),
+                    total.getTotalAmount(),
+                    total.getTransactionCount());
+        }
+    }
+
+    /**
+     * Splits a range into the whole days served by the rollup and the partial
+     * head and tail days that still have to be read from {@code sales_entries}.
+     */
+    public RangeSplit split(LocalDateTime fromDate, LocalDateTime toDate) {
+        LocalDate firstFullDay = fromDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? fromDate.toLocalDate() : fromDate.toLocalDate().plusDays(1);
+        LocalDate lastFullDay = toDate.toLocalTime().isBefore(LAST_INSTANT_OF_DAY)
+                ? toDate.toLocalDate().minusDays(1) : toDate.toLocalDate();
+
+        if (firstFullDay.isAfter(lastFullDay)) {
+            // No whole day in range, scan the bills directly
+            return new RangeSplit(LATEST_DATE, EARLIEST_DATE,
+                    fromDate, toDate, EMPTY_WINDOW_FROM, EMPTY_WINDOW_TO);
+        }
+
+        LocalDateTime headFrom = EMPTY_WINDOW_FROM;
+        LocalDateTime headTo = EMPTY_WINDOW_TO;
+        if (fromDate.isBefore(firstFullDay.atStartOfDay())) {
+            headFrom = fromDate;
+            headTo = firstFullDay.minusDays(1).atTime(LAST_INSTANT_OF_DAY);
+        }
+
+        LocalDateTime tailFrom = EMPTY_WINDOW_FROM;
+        LocalDateTime tailTo = EMPTY_WINDOW_TO;
+        if (toDate.isAfter(lastFullDay.atTime(LAST_INSTANT_OF_DAY))) {
+            tailFrom = lastFullDay.plusDays(1).atStartOfDay();
+            tailTo = toDate;
+        }
+
+        return new RangeSplit(firstFullDay, lastFullDay, headFrom, headTo, tailFrom, tailTo);
+    }
+
+    /**
+     * Recomputes the rollup for the given days from {@code sales_entries}.
+     * Null bounds rebuild everything.
+     *
+     * @return number of rollup rows written
+     */
+    public int rebuild(LocalDate fromDate, LocalDate toDate) {
+        LocalDate from = (fromDate == null) ? EARLIEST_DATE : fromDate;
+        LocalDate to = (toDate == null) ? LATEST_DATE : toDate;
+
+        salesDailyRollupRepository.lockForRebuild();
+        int deleted = salesDailyRollupRepository.deleteRange(from, to);
+        int written = salesDailyRollupRepository.rebuildRange(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        pivotService.salesRollupRebuilt(fromDate);
+
+        log.info("Rebuilt sales rollup for {} to {}: {} rows removed, {} rows written",
+                from, to, deleted, written);
+        return written;
+    }
+
+    public boolean isEmpty() {
+        return salesDailyRollupRepository.count() == 0;
+    }
+
+    /**
+     * Bounds are inclusive; a window whose start is after its end is empty.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class RangeSplit {
+        private LocalDate rollupFrom;
+        private LocalDate rollupTo;
+        private LocalDateTime headFrom;
+        private LocalDateTime headTo;
+        private LocalDateTime tailFrom;
+        private LocalDateTime tailTo;
+    }
+}
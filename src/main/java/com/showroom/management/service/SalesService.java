@@ -3,19 +3,31 @@ package com.showroom.management.service;
 import com.showroom.management.dto.*;
 import com.showroom.management.entity.SalesEntry;
 import com.showroom.management.entity.User;
-import com.showroom.management.repository.ExpenseEntryRepository;
+import com.showroom.management.exception.DuplicateBillNumberException;
+import com.showroom.management.exception.PeriodClosedException;
 import com.showroom.management.repository.SalesEntryRepository;
+import com.showroom.management.repository.SalesFilter;
 import com.showroom.management.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,18 +36,42 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SalesService {
 
-    private final SalesEntryRepository salesEntryRepository;
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int IMPORT_FLUSH_SIZE = 500;
 
-    private final ExpenseEntryRepository expenseEntryRepository;
-    private final UserRepository userRepository;
+    // Sales are booked to the rep's outlet
+    private static final String NO_OUTLET = "Sales representative has no outlet";
 
+    private final SalesEntryRepository salesEntryRepository;
+    private final UserRepository userRepository;
+    private final SalesRollupService salesRollupService;
+    private final SalesLeaderboardService salesLeaderboardService;
+    private final PivotService pivotService;
+    private final DashboardStatsService dashboardStatsService;
+    private final BillNumberIndex billNumberIndex;
+    private final DataVersionService dataVersionService;
+    private final DashboardPushService dashboardPushService;
+    private final PeriodCloseService periodCloseService;
+    private final OutletDictionary outletDictionary;
+    private final DomainEventService domainEventService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    /**
+     * The unique constraint on the bill number decides duplicates; the
+     * up-front lookup only runs when the bill index reports a possible hit.
+     */
     public SalesEntryDTO createSalesEntry(SalesEntryDTO dto, String createdBy) {
-        if (salesEntryRepository.existsByBillNumber(dto.getBillNumber())) {
-            throw new RuntimeException("Bill number already exists");
+        if (billNumberIndex.mightContain(dto.getBillNumber())
+                && salesEntryRepository.existsByBillNumber(dto.getBillNumber())) {
+            throw new DuplicateBillNumberException();
         }
 
         User salesRep = userRepository.findByUsername(dto.getSalesRepUsername())
                 .orElseThrow(() -> new RuntimeException("Sales representative not found"));
+        if (salesRep.getOutlet() == null) {
+            throw new RuntimeException(NO_OUTLET);
+        }
 
         SalesEntry salesEntry = new SalesEntry();
         salesEntry.setSalesRep(salesRep);
@@ -46,18 +82,186 @@ public class SalesService {
         salesEntry.setPaymentType(dto.getPaymentType());
         salesEntry.setCreatedBy(createdBy);
 
-        SalesEntry saved = salesEntryRepository.save(salesEntry);
-        return SalesEntryDTO.fromEntity(saved);
+        SalesEntry saved;
+        try {
+            saved = salesEntryRepository.saveAndFlush(salesEntry);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateBillNumberException.isCausedBy(e) ? new DuplicateBillNumberException() : e;
+        } catch (DataAccessException e) {
+            throw PeriodClosedException.isCausedBy(e) ? new PeriodClosedException(salesEntry.getOutlet()) : e;
+        }
+        domainEventService.salesCreated(List.of(saved));
+        billNumberIndex.add(saved.getBillNumber());
+        salesRollupService.recordSale(saved);
+        salesLeaderboardService.recordSale(saved);
+        pivotService.salesChanged(List.of(saved));
+        dataVersionService.outletChanged(saved.getOutlet());
+
+        SalesEntryDTO created = SalesEntryDTO.fromEntity(saved);
+        dashboardPushService.salesCreated(created);
+        return created;
     }
 
-    public List<SalesEntryDTO> getFilteredSales(String outlet, LocalDateTime fromDate,
-                                                LocalDateTime toDate, String salesRepUsername,
-                                                SalesEntry.PaymentType paymentType) {
+    /**
+     * Stores a POS end-of-day upload. Reps and existing bill numbers are
+     * resolved with set-based queries, and rows are inserted in JDBC batches.
+     * Invalid and duplicate rows are reported and skipped; the rest are saved.
+     */
+    public SalesBatchResultDTO importSales(List<SalesEntryDTO> rows, String createdBy) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> billNumbers = new HashSet<>();
+        for (SalesEntryDTO row : rows) {
+            usernames.add(row.getSalesRepUsername());
+            billNumbers.add(row.getBillNumber());
+        }
+        usernames.remove(null);
+        billNumbers.remove(null);
+
+        Map<String, User> salesReps = userRepository.findByUsernameIn(usernames).stream()
+                .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        // Exact lookup, not the bill index: a bill stored through another
+        // instance must come back as DUPLICATE rather than fail the upload
+        Set<String> takenBillNumbers = salesEntryRepository.findExistingBillNumbers(billNumbers);
+        Map<String, LocalDate> closedThrough = periodCloseService.getClosedThrough();
+
+        List<SalesBatchResultDTO.RowResult> results = new ArrayList<>(rows.size());
+        List<SalesEntry> saved = new ArrayList<>(rows.size());
+        List<SalesEntry> pending = new ArrayList<>(IMPORT_FLUSH_SIZE);
+        List<SalesBatchResultDTO.RowResult> pendingResults = new ArrayList<>(IMPORT_FLUSH_SIZE);
+        int created = 0;
+        int duplicates = 0;
+        int invalid = 0;
+
+        for (int i = 0; i < rows.size(); i++) {
+            SalesEntryDTO row = rows.get(i);
+            SalesBatchResultDTO.RowResult result = new SalesBatchResultDTO.RowResult(
+                    i, row.getBillNumber(), null, null, null);
+            results.add(result);
+
+            String error = validationError(row);
+            User salesRep = (error == null) ? salesReps.get(row.getSalesRepUsername()) : null;
+            if (error == null && salesRep == null) {
+                error = "Sales representative not found";
+            }
+            if (error == null && salesRep.getOutlet() == null) {
+                error = NO_OUTLET;
+            }
+            LocalDate outletClosedThrough = (error == null) ? closedThrough.get(salesRep.getOutlet()) : null;
+            if (outletClosedThrough != null && !row.getDateTime().toLocalDate().isAfter(outletClosedThrough)) {
+                error = new PeriodClosedException(salesRep.getOutlet(), outletClosedThrough).getMessage();
+            }
+            if (error != null) {
+                result.setStatus(SalesBatchResultDTO.RowStatus.INVALID);
+                result.setMessage(error);
+                invalid++;
+                continue;
+            }
 
-        // Convert parameters to safe values
-        String safeOutlet = (outlet == null || outlet.trim().isEmpty()) ? "All Outlets" : outlet;
-        LocalDateTime safeFromDate = (fromDate == null) ? LocalDateTime.of(1900, 1, 1, 0, 0) : fromDate;
-        LocalDateTime safeToDate = (toDate == null) ? LocalDateTime.of(2099, 12, 31, 23, 59) : toDate;
+            // Also catches the same bill appearing twice in one upload
+            if (!takenBillNumbers.add(row.getBillNumber())) {
+                result.setStatus(SalesBatchResultDTO.RowStatus.DUPLICATE);
+                result.setMessage("Bill number already exists");
+                duplicates++;
+                continue;
+            }
+
+            SalesEntry salesEntry = new SalesEntry();
+            salesEntry.setSalesRep(salesRep);
+            salesEntry.setOutlet(salesRep.getOutlet());
+            salesEntry.setDateTime(row.getDateTime());
+            salesEntry.setBillNumber(row.getBillNumber());
+            salesEntry.setAmount(row.getAmount());
+            salesEntry.setPaymentType(row.getPaymentType());
+            salesEntry.setCreatedBy(createdBy);
+            pending.add(salesEntry);
+            pendingResults.add(result);
+            created++;
+
+            if (pending.size() == IMPORT_FLUSH_SIZE) {
+                saveImported(pending, pendingResults, saved);
+            }
+        }
+        saveImported(pending, pendingResults, saved);
+        salesRollupService.recordSales(saved);
+        salesLeaderboardService.recordSales(saved);
+        pivotService.salesChanged(saved);
+        Set<String> changedOutlets = saved.stream().map(SalesEntry::getOutlet).collect(Collectors.toSet());
+        dataVersionService.outletsChanged(changedOutlets);
+        dashboardPushService.outletsChanged(changedOutlets);
+
+        return new SalesBatchResultDTO(rows.size(), created, duplicates, invalid, results);
+    }
+
+    private void saveImported(List<SalesEntry> pending, List<SalesBatchResultDTO.RowResult> pendingResults,
+                              List<SalesEntry> saved) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        salesEntryRepository.saveAll(pending);
+        try {
+            // Write this chunk as one JDBC batch and keep the persistence context small
+            salesEntryRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored one of these bills after the lookup
+            throw DuplicateBillNumberException.isCausedBy(e) ? new DuplicateBillNumberException() : e;
+        } catch (DataAccessException e) {
+            // Or its outlet closed one of these days after the lookup
+            throw PeriodClosedException.isCausedBy(e) ? new PeriodClosedException() : e;
+        }
+        domainEventService.salesCreated(pending);
+        entityManager.clear();
+
+        for (int i = 0; i < pending.size(); i++) {
+            pendingResults.get(i).setStatus(SalesBatchResultDTO.RowStatus.CREATED);
+            pendingResults.get(i).setId(pending.get(i).getId());
+            billNumberIndex.add(pending.get(i).getBillNumber());
+        }
+        saved.addAll(pending);
+        pending.clear();
+        pendingResults.clear();
+    }
+
+    private String validationError(SalesEntryDTO row) {
+        Set<ConstraintViolation<SalesEntryDTO>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<SalesEntryDTO> getFilteredSales(String outlet, LocalDateTime fromDate,
+                                                      LocalDateTime toDate, String salesRepUsername,
+                                                      SalesEntry.PaymentType paymentType,
+                                                      String cursor, Integer pageSize) {
+
+        SalesFilter filter = buildFilter(outlet, fromDate, toDate, salesRepUsername, paymentType);
+        return findSalesPage(filter, cursor, pageSize);
+    }
+
+    private CursorPage<SalesEntryDTO> findSalesPage(SalesFilter filter, String cursor, Integer pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        int size = CursorPage.clampPageSize(pageSize);
+
+        // One extra row tells us whether there is a next page
+        List<SalesEntryDTO> sales = salesEntryRepository.findFilteredSales(filter, pageCursor, size + 1);
+
+        return CursorPage.of(sales, size, Function.identity(),
+                s -> new PageCursor(s.getDateTime(), s.getId()));
+    }
+
+    /**
+     * Only the filters actually supplied end up in the query; a null outlet
+     * means no outlet filter.
+     */
+    @Transactional(readOnly = true)
+    public SalesFilter buildFilter(String outlet, LocalDateTime fromDate, LocalDateTime toDate,
+                                   String salesRepUsername, SalesEntry.PaymentType paymentType) {
+        Short outletId = outletDictionary.filterId(outlet);
 
         // Handle sales rep
         Long salesRepId = null;
@@ -68,58 +272,44 @@ public class SalesService {
             }
         }
 
-        // Handle payment type
-        String paymentTypeStr = (paymentType != null) ? paymentType.name() : null;
-
-        List<SalesEntry> sales = salesEntryRepository.findFilteredSalesNative(
-                safeOutlet, safeFromDate, safeToDate, salesRepId, paymentTypeStr);
+        return new SalesFilter(outletId, fromDate, toDate, salesRepId, paymentType);
+    }
 
-        return sales.stream()
-                .map(SalesEntryDTO::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * A sales rep's own sales, by the id of the authenticated rep. Never
+     * looked up by username, so it cannot widen to other reps' sales.
+     */
+    public SalesFilter buildSalesRepFilter(Long salesRepId, LocalDateTime fromDate, LocalDateTime toDate) {
+        if (salesRepId == null) {
+            throw new RuntimeException("Sales representative not found");
+        }
+        return new SalesFilter(null, fromDate, toDate, salesRepId, null);
     }
 
-    public List<SalesEntryDTO> getSalesForUser(String username, String userRole, String userOutlet,
-                                               LocalDateTime fromDate, LocalDateTime toDate) {
+    @Transactional(readOnly = true)
+    public CursorPage<SalesEntryDTO> getSalesForUser(Long userId, String userRole, String userOutlet,
+                                                     LocalDateTime fromDate, LocalDateTime toDate,
+                                                     String cursor, Integer pageSize) {
         if ("SALES".equals(userRole)) {
             // Sales rep can only see their own sales
-            List<SalesEntry> sales = salesEntryRepository.findBySalesRepAndDateRange(
-                    username, fromDate, toDate);
-            return sales.stream()
-                    .map(SalesEntryDTO::fromEntity)
-                    .collect(Collectors.toList());
+            return findSalesPage(buildSalesRepFilter(userId, fromDate, toDate), cursor, pageSize);
         } else {
             // Manager/Owner can see all sales in their scope
-            return getFilteredSales(userOutlet, fromDate, toDate, null, null);
+            return getFilteredSales(userOutlet, fromDate, toDate, null, null, cursor, pageSize);
         }
     }
 
+    // No transaction here: the stats queries run concurrently, each with its own connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardStatsDTO getDashboardStats(String outlet, LocalDateTime fromDate, LocalDateTime toDate) {
         // Convert parameters to safe values for database queries
-        String safeOutlet = (outlet == null || outlet.trim().isEmpty()) ? "All Outlets" : outlet;
         LocalDateTime safeFromDate = (fromDate == null) ? LocalDateTime.of(1900, 1, 1, 0, 0) : fromDate;
         LocalDateTime safeToDate = (toDate == null) ? LocalDateTime.of(2099, 12, 31, 23, 59) : toDate;
 
-        // Get sales stats
-        BigDecimal totalSales = salesEntryRepository.getTotalSales(safeOutlet, safeFromDate, safeToDate);
-        Long totalTransactions = salesEntryRepository.getTotalTransactions(safeOutlet, safeFromDate, safeToDate);
-
-        // Get expense stats (convert datetime to date for expense queries)
-        LocalDate fromDateOnly = safeFromDate.toLocalDate();
-        LocalDate toDateOnly = safeToDate.toLocalDate();
-
-        // You'll need to inject ExpenseService or ExpenseEntryRepository here
-        // For now, setting expenses to zero - you can add this later
-        BigDecimal totalExpenses = expenseEntryRepository.getTotalExpenses(safeOutlet, safeFromDate, safeToDate);
-
-        if (totalSales == null) totalSales = BigDecimal.ZERO;
-        if (totalTransactions == null) totalTransactions = 0L;
-
-        BigDecimal netProfit = totalSales.subtract(totalExpenses);
-
-        return new DashboardStatsDTO(totalSales, totalExpenses, netProfit, totalTransactions);
+        return dashboardStatsService.getOutletStats(outlet, safeFromDate, safeToDate);
     }
 
+    @Transactional(readOnly = true)
     public DashboardStatsDTO getDashboardStatsForSalesRep(String salesRepUsername,
                                                           LocalDateTime fromDate,
                                                           LocalDateTime toDate) {
@@ -135,21 +325,11 @@ public class SalesService {
                 .orElseThrow(() -> new RuntimeException("Sales representative not found"));
 
         // Get only this sales rep's data
-        BigDecimal totalSales = salesEntryRepository.getTotalSalesBySalesRep(
-                salesRep.getId(), safeFromDate, safeToDate);
-        Long totalTransactions = salesEntryRepository.getTotalTransactionsBySalesRep(
-                salesRep.getId(), safeFromDate, safeToDate);
-
-        if (totalSales == null) totalSales = BigDecimal.ZERO;
-        if (totalTransactions == null) totalTransactions = 0L;
-
-        // Sales reps don't see expenses or profit - just their sales performance
-        BigDecimal totalExpenses = BigDecimal.ZERO;
-        BigDecimal netProfit = totalSales; // For sales rep, "profit" is their sales contribution
+        DashboardStatsDTO stats = dashboardStatsService.getSalesRepStats(salesRep.getId(), safeFromDate, safeToDate);
 
         log.info("Sales rep {} stats: Sales={}, Transactions={}",
-                salesRepUsername, totalSales, totalTransactions);
+                salesRepUsername, stats.getTotalSales(), stats.getTotalTransactions());
 
-        return new DashboardStatsDTO(totalSales, totalExpenses, netProfit, totalTransactions);
+        return stats;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.showroom.management.service;
 import com.showroom.management.dto.*;
 import com.showroom.management.entity.User;
 import com.showroom.management.repository.UserRepository;
+import com.showroom.management.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,11 +20,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final OutletDictionary outletDictionary;
+    private final DomainEventService domainEventService;
 
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers(String currentUserRole, String currentUserOutlet) {
         List<User> users;
 
@@ -44,20 +50,28 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getSalesReps(String outlet) {
-        List<User> salesReps;
-
-        if ("All Outlets".equals(outlet)) {
-            salesReps = userRepository.findByRole(User.Role.SALES);
-        } else {
-            salesReps = userRepository.findByRoleAndOutlet(User.Role.SALES, outlet);
-        }
-
-        return salesReps.stream()
+        return findSalesReps(outlet).stream()
                 .map(UserDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sales reps of an outlet, of all outlets for null. A name that is no
+     * outlet has none.
+     */
+    @Transactional(readOnly = true)
+    public List<User> findSalesReps(String outlet) {
+        if (outlet == null) {
+            return userRepository.findByRole(User.Role.SALES);
+        }
+        if (outletDictionary.findId(outlet).isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findByRoleAndOutlet(User.Role.SALES, outlet);
+    }
+
     public UserDTO createUser(CreateUserRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
@@ -71,10 +85,12 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(defaultPassword));
         user.setFullName(request.getFullName());
         user.setRole(request.getRole());
-        user.setOutlet(request.getOutlet());
+        user.setOutlet(outletOf(request));
         user.setIsActive(true);
 
         User savedUser = userRepository.save(user);
+        domainEventService.userCreated(savedUser);
+        userDetailsService.userChanged(savedUser.getUsername(), true);
         return UserDTO.fromEntity(savedUser);
     }
 
@@ -88,6 +104,23 @@ public class UserService {
 
         user.setIsActive(false);
         userRepository.save(user);
+        domainEventService.userDeactivated(user);
+        userDetailsService.userChanged(user.getUsername(), false);
+    }
+
+    /**
+     * Owners work across all outlets unless given one; everyone else needs an
+     * outlet, which is added if it is new.
+     */
+    private String outletOf(CreateUserRequest request) {
+        String outlet = OutletDictionary.scope(request.getOutlet());
+        if (outlet == null) {
+            if (request.getRole() != User.Role.OWNER) {
+                throw new RuntimeException("Outlet is required");
+            }
+            return null;
+        }
+        return outletDictionary.register(outlet.trim());
     }
 
     private String getDefaultPassword(User.Role role) {
@@ -0,0 +1,48 @@
+-- Schema as created by Hibernate (ddl-auto) before migrations were introduced.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE users (
+    id bigserial NOT NULL,
+    username varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    full_name varchar(255) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('OWNER','MANAGER','SALES')),
+    outlet varchar(255) NOT NULL,
+    is_active boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE sales_entries (
+    id bigserial NOT NULL,
+    sales_rep_id bigint NOT NULL,
+    outlet varchar(255) NOT NULL,
+    date_time timestamp(6) NOT NULL,
+    bill_number varchar(255) NOT NULL UNIQUE,
+    amount numeric(10,2) NOT NULL,
+    payment_type varchar(255) NOT NULL CHECK (payment_type IN ('CASH','ACCOUNT')),
+    created_by varchar(255) NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE expense_entries (
+    id bigserial NOT NULL,
+    outlet varchar(255) NOT NULL,
+    date date NOT NULL,
+    type varchar(255) NOT NULL CHECK (type IN ('TEA','MESS','DINNER','BREAKFAST','LUNCH','CHARITY','CHIT_FUND','ADVANCE')),
+    amount numeric(10,2) NOT NULL,
+    description varchar(255),
+    advance_to_id bigint,
+    created_by varchar(255) NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE sales_entries ADD CONSTRAINT fk_sales_entries_sales_rep
+    FOREIGN KEY (sales_rep_id) REFERENCES users;
+ALTER TABLE expense_entries ADD CONSTRAINT fk_expense_entries_advance_to
+    FOREIGN KEY (advance_to_id) REFERENCES users;
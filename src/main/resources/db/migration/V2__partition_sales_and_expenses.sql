@@ -0,0 +1,189 @@
+-- Monthly range partitions for sales_entries (on date_time) and
+-- expense_entries (on date). Date-bounded queries only touch the months they
+-- cover, and old months can be detached or vacuumed one table at a time:
+--
+--   ALTER TABLE sales_entries DETACH PARTITION sales_entries_2023_01 CONCURRENTLY;
+--
+-- Rows outside every monthly partition land in the *_default partitions;
+-- PartitionMaintenanceService creates upcoming months and moves such rows
+-- into partitions of their own.
+
+-- Creates the partition of the given month unless it exists. Rows of that
+-- month already in the default partition are moved into it.
+CREATE FUNCTION create_monthly_partition(parent text, key_column text, month date)
+RETURNS boolean AS $$
+DECLARE
+    from_value date := date_trunc('month', month)::date;
+    to_value date := (date_trunc('month', month) + interval '1 month')::date;
+    partition_name text := parent || '_' || to_char(from_value, 'YYYY_MM');
+    default_name text := parent || '_default';
+    has_default_rows boolean;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+            default_name, key_column, from_value, key_column, to_value)
+        INTO has_default_rows;
+
+    IF has_default_rows THEN
+        -- Deleted before they are inserted again, so triggers see a move
+        EXECUTE format('CREATE TEMP TABLE moved_partition_rows AS SELECT * FROM %I WHERE %I >= %L AND %I < %L',
+                default_name, key_column, from_value, key_column, to_value);
+        EXECUTE format('DELETE FROM %I WHERE %I >= %L AND %I < %L',
+                default_name, key_column, from_value, key_column, to_value);
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, parent, from_value, to_value);
+
+    IF has_default_rows THEN
+        EXECUTE format('INSERT INTO %I SELECT * FROM moved_partition_rows', parent);
+        DROP TABLE moved_partition_rows;
+    END IF;
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A unique index on a partitioned table has to include the partition key, so
+-- bill numbers are kept unique across all months in a table of their own.
+-- Duplicates still fail with unique_violation (23505).
+CREATE TABLE sales_bill_numbers (
+    bill_number varchar(255) NOT NULL,
+    PRIMARY KEY (bill_number)
+);
+
+CREATE FUNCTION sales_bill_numbers_sync() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO sales_bill_numbers (bill_number) VALUES (NEW.bill_number);
+    ELSE
+        DELETE FROM sales_bill_numbers WHERE bill_number = OLD.bill_number;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+
+-- sales_entries
+
+ALTER TABLE sales_entries RENAME TO sales_entries_unpartitioned;
+
+CREATE TABLE sales_entries (
+    id bigint NOT NULL,
+    sales_rep_id bigint NOT NULL,
+    outlet varchar(255) NOT NULL,
+    date_time timestamp(6) NOT NULL,
+    bill_number varchar(255) NOT NULL,
+    amount numeric(10,2) NOT NULL,
+    payment_type varchar(255) NOT NULL CHECK (payment_type IN ('CASH','ACCOUNT')),
+    created_by varchar(255) NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+) PARTITION BY RANGE (date_time);
+
+CREATE TABLE sales_entries_default PARTITION OF sales_entries DEFAULT;
+
+SELECT create_monthly_partition('sales_entries', 'date_time', month::date)
+FROM generate_series(
+        date_trunc('month', LEAST((SELECT MIN(date_time) FROM sales_entries_unpartitioned), now())),
+        date_trunc('month', now()) + interval '3 months',
+        interval '1 month') AS month;
+
+INSERT INTO sales_entries (id, sales_rep_id, outlet, date_time, bill_number, amount, payment_type,
+                           created_by, created_at, updated_at)
+SELECT id, sales_rep_id, outlet, date_time, bill_number, amount, payment_type,
+       created_by, created_at, updated_at
+FROM sales_entries_unpartitioned;
+
+INSERT INTO sales_bill_numbers (bill_number)
+SELECT bill_number FROM sales_entries_unpartitioned;
+
+DROP TABLE sales_entries_unpartitioned;
+
+-- Created on the parent, so every partition gets its own copy
+ALTER TABLE sales_entries ADD CONSTRAINT sales_entries_pkey PRIMARY KEY (id, date_time);
+CREATE INDEX idx_sales_entries_outlet_date_time ON sales_entries (outlet, date_time, id);
+CREATE INDEX idx_sales_entries_sales_rep_date_time ON sales_entries (sales_rep_id, date_time, id);
+CREATE INDEX idx_sales_entries_date_time ON sales_entries (date_time, id);
+CREATE INDEX idx_sales_entries_bill_number ON sales_entries (bill_number);
+
+ALTER TABLE sales_entries ADD CONSTRAINT fk_sales_entries_sales_rep
+    FOREIGN KEY (sales_rep_id) REFERENCES users;
+
+CREATE TRIGGER sales_entries_bill_number
+    AFTER INSERT OR DELETE ON sales_entries
+    FOR EACH ROW EXECUTE FUNCTION sales_bill_numbers_sync();
+
+-- Baselined databases drew sales ids from the serial sequence dropped with the
+-- old table; Hibernate ddl-auto may already have created this one.
+CREATE SEQUENCE IF NOT EXISTS sales_entries_seq START WITH 1 INCREMENT BY 500;
+
+-- The pooled optimizer hands out the block ending at the value nextval() returns
+SELECT setval('sales_entries_seq', MAX(id)) FROM sales_entries
+HAVING MAX(id) > (SELECT last_value FROM sales_entries_seq);
+
+
+-- sales_daily_rollup
+--
+-- Filled by DataInitializer on the first start that finds it empty.
+
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sales_date date NOT NULL,
+    outlet varchar(255) NOT NULL,
+    sales_rep_id bigint NOT NULL,
+    payment_type varchar(255) NOT NULL CHECK (payment_type IN ('CASH','ACCOUNT')),
+    total_amount numeric(14,2) NOT NULL,
+    transaction_count bigint NOT NULL,
+    PRIMARY KEY (sales_date, sales_rep_id, outlet, payment_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_date ON sales_daily_rollup (sales_date);
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_outlet_date ON sales_daily_rollup (outlet, sales_date);
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_sales_rep_date ON sales_daily_rollup (sales_rep_id, sales_date);
+
+
+-- expense_entries
+
+ALTER TABLE expense_entries RENAME TO expense_entries_unpartitioned;
+
+CREATE TABLE expense_entries (
+    id bigint NOT NULL DEFAULT nextval('expense_entries_id_seq'),
+    outlet varchar(255) NOT NULL,
+    date date NOT NULL,
+    type varchar(255) NOT NULL CHECK (type IN ('TEA','MESS','DINNER','BREAKFAST','LUNCH','CHARITY','CHIT_FUND','ADVANCE')),
+    amount numeric(10,2) NOT NULL,
+    description varchar(255),
+    advance_to_id bigint,
+    created_by varchar(255) NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+) PARTITION BY RANGE (date);
+
+-- Keep the id sequence when the old table is dropped
+ALTER SEQUENCE expense_entries_id_seq OWNED BY expense_entries.id;
+
+CREATE TABLE expense_entries_default PARTITION OF expense_entries DEFAULT;
+
+SELECT create_monthly_partition('expense_entries', 'date', month::date)
+FROM generate_series(
+        date_trunc('month', LEAST((SELECT MIN(date) FROM expense_entries_unpartitioned), now())),
+        date_trunc('month', now()) + interval '3 months',
+        interval '1 month') AS month;
+
+INSERT INTO expense_entries (id, outlet, date, type, amount, description, advance_to_id,
+                             created_by, created_at, updated_at)
+SELECT id, outlet, date, type, amount, description, advance_to_id,
+       created_by, created_at, updated_at
+FROM expense_entries_unpartitioned;
+
+DROP TABLE expense_entries_unpartitioned;
+
+ALTER TABLE expense_entries ADD CONSTRAINT expense_entries_pkey PRIMARY KEY (id, date);
+CREATE INDEX idx_expense_entries_outlet_date_type ON expense_entries (outlet, date, type);
+CREATE INDEX idx_expense_entries_advance_to_date ON expense_entries (advance_to_id, date);
+CREATE INDEX idx_expense_entries_date ON expense_entries (date, id);
+
+ALTER TABLE expense_entries ADD CONSTRAINT fk_expense_entries_advance_to
+    FOREIGN KEY (advance_to_id) REFERENCES users;
@@ -0,0 +1,138 @@
+-- Closed books per outlet. An outlet is closed through the latest period_end;
+-- sales and expenses on or before that day can no longer be added, changed
+-- or removed. Closed periods of an outlet are contiguous days or whole months
+-- (see PeriodCloseService).
+CREATE TABLE period_closes (
+    outlet varchar(255) NOT NULL,
+    period_start date NOT NULL,
+    period_end date NOT NULL,
+    closed_by varchar(255) NOT NULL,
+    closed_at timestamp(6) NOT NULL,
+    PRIMARY KEY (outlet, period_start),
+    CHECK (period_end >= period_start)
+);
+
+CREATE INDEX idx_period_closes_outlet_end ON period_closes (outlet, period_end);
+
+-- Totals of a closed period, frozen when it was closed
+CREATE TABLE sales_period_snapshots (
+    outlet varchar(255) NOT NULL,
+    period_start date NOT NULL,
+    period_end date NOT NULL,
+    sales_rep_id bigint NOT NULL REFERENCES users,
+    payment_type varchar(255) NOT NULL CHECK (payment_type IN ('CASH','ACCOUNT')),
+    total_amount numeric(14,2) NOT NULL,
+    transaction_count bigint NOT NULL,
+    PRIMARY KEY (outlet, period_start, sales_rep_id, payment_type),
+    FOREIGN KEY (outlet, period_start) REFERENCES period_closes ON DELETE CASCADE
+);
+
+CREATE INDEX idx_sales_period_snapshots_start ON sales_period_snapshots (period_start, period_end);
+
+-- Expenses by type; advances also by the employee they were paid to
+CREATE TABLE expense_period_snapshots (
+    outlet varchar(255) NOT NULL,
+    period_start date NOT NULL,
+    period_end date NOT NULL,
+    type varchar(255) NOT NULL CHECK (type IN ('TEA','MESS','DINNER','BREAKFAST','LUNCH','CHARITY','CHIT_FUND','ADVANCE')),
+    advance_to_id bigint REFERENCES users,
+    total_amount numeric(14,2) NOT NULL,
+    entry_count bigint NOT NULL,
+    FOREIGN KEY (outlet, period_start) REFERENCES period_closes ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX idx_expense_period_snapshots_key
+    ON expense_period_snapshots (outlet, period_start, type, COALESCE(advance_to_id, 0));
+CREATE INDEX idx_expense_period_snapshots_start ON expense_period_snapshots (period_start, period_end);
+
+
+-- Rejects changes on or before the day an outlet is closed through.
+-- Rows moved out of a default partition are let through.
+CREATE FUNCTION assert_period_open(changed_outlet text, changed_day date) RETURNS void AS $$
+DECLARE
+    closed_through date;
+BEGIN
+    IF current_setting('showroom.moving_partition_rows', true) = 'on' THEN
+        RETURN;
+    END IF;
+
+    SELECT MAX(period_end) INTO closed_through FROM period_closes WHERE outlet = changed_outlet;
+    IF closed_through IS NOT NULL AND changed_day <= closed_through THEN
+        RAISE EXCEPTION 'Books of % are closed through %', changed_outlet, closed_through
+            USING ERRCODE = 'SR001';
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION sales_entries_period_check() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM assert_period_open(OLD.outlet, CAST(OLD.date_time AS date));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM assert_period_open(NEW.outlet, CAST(NEW.date_time AS date));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION expense_entries_period_check() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM assert_period_open(OLD.outlet, OLD.date);
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM assert_period_open(NEW.outlet, NEW.date);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER sales_entries_period_check
+    AFTER INSERT OR UPDATE OR DELETE ON sales_entries
+    FOR EACH ROW EXECUTE FUNCTION sales_entries_period_check();
+
+CREATE TRIGGER expense_entries_period_check
+    AFTER INSERT OR UPDATE OR DELETE ON expense_entries
+    FOR EACH ROW EXECUTE FUNCTION expense_entries_period_check();
+
+
+-- Same as in V2, except that moving rows out of the default partition is
+-- not treated as a change to a closed period
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent text, key_column text, month date)
+RETURNS boolean AS $$
+DECLARE
+    from_value date := date_trunc('month', month)::date;
+    to_value date := (date_trunc('month', month) + interval '1 month')::date;
+    partition_name text := parent || '_' || to_char(from_value, 'YYYY_MM');
+    default_name text := parent || '_default';
+    has_default_rows boolean;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+            default_name, key_column, from_value, key_column, to_value)
+        INTO has_default_rows;
+
+    IF has_default_rows THEN
+        PERFORM set_config('showroom.moving_partition_rows', 'on', true);
+        -- Deleted before they are inserted again, so triggers see a move
+        EXECUTE format('CREATE TEMP TABLE moved_partition_rows AS SELECT * FROM %I WHERE %I >= %L AND %I < %L',
+                default_name, key_column, from_value, key_column, to_value);
+        EXECUTE format('DELETE FROM %I WHERE %I >= %L AND %I < %L',
+                default_name, key_column, from_value, key_column, to_value);
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, parent, from_value, to_value);
+
+    IF has_default_rows THEN
+        EXECUTE format('INSERT INTO %I SELECT * FROM moved_partition_rows', parent);
+        DROP TABLE moved_partition_rows;
+        PERFORM set_config('showroom.moving_partition_rows', 'off', true);
+    END IF;
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
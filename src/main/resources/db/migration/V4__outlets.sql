@@ -0,0 +1,135 @@
+-- Outlets become a reference table with a small integer key. Every table that
+-- repeated the outlet name now holds its id; a user without an outlet
+-- (formerly 'All Outlets') works across all outlets.
+CREATE TABLE outlets (
+    id smallint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO outlets (name)
+SELECT name FROM (
+    SELECT outlet AS name FROM users WHERE outlet <> 'All Outlets'
+    UNION SELECT outlet FROM sales_entries
+    UNION SELECT outlet FROM expense_entries
+    UNION SELECT outlet FROM sales_daily_rollup
+    UNION SELECT outlet FROM period_closes
+) names
+ORDER BY name;
+
+
+-- The period checks are recreated below on outlet_id; dropped first so that
+-- rewriting closed rows is not rejected
+DROP TRIGGER sales_entries_period_check ON sales_entries;
+DROP TRIGGER expense_entries_period_check ON expense_entries;
+DROP FUNCTION sales_entries_period_check();
+DROP FUNCTION expense_entries_period_check();
+DROP FUNCTION assert_period_open(text, date);
+
+
+ALTER TABLE users ADD COLUMN outlet_id smallint REFERENCES outlets;
+UPDATE users u SET outlet_id = o.id FROM outlets o WHERE o.name = u.outlet;
+ALTER TABLE users DROP COLUMN outlet;
+
+ALTER TABLE sales_entries ADD COLUMN outlet_id smallint;
+UPDATE sales_entries s SET outlet_id = o.id FROM outlets o WHERE o.name = s.outlet;
+ALTER TABLE sales_entries ALTER COLUMN outlet_id SET NOT NULL;
+ALTER TABLE sales_entries DROP COLUMN outlet;
+ALTER TABLE sales_entries ADD CONSTRAINT fk_sales_entries_outlet
+    FOREIGN KEY (outlet_id) REFERENCES outlets;
+CREATE INDEX idx_sales_entries_outlet_date_time ON sales_entries (outlet_id, date_time, id);
+
+ALTER TABLE expense_entries ADD COLUMN outlet_id smallint;
+UPDATE expense_entries e SET outlet_id = o.id FROM outlets o WHERE o.name = e.outlet;
+ALTER TABLE expense_entries ALTER COLUMN outlet_id SET NOT NULL;
+ALTER TABLE expense_entries DROP COLUMN outlet;
+ALTER TABLE expense_entries ADD CONSTRAINT fk_expense_entries_outlet
+    FOREIGN KEY (outlet_id) REFERENCES outlets;
+CREATE INDEX idx_expense_entries_outlet_date_type ON expense_entries (outlet_id, date, type);
+
+ALTER TABLE sales_daily_rollup ADD COLUMN outlet_id smallint REFERENCES outlets;
+UPDATE sales_daily_rollup r SET outlet_id = o.id FROM outlets o WHERE o.name = r.outlet;
+ALTER TABLE sales_daily_rollup ALTER COLUMN outlet_id SET NOT NULL;
+-- Also drops the primary key and the outlet index
+ALTER TABLE sales_daily_rollup DROP COLUMN outlet;
+ALTER TABLE sales_daily_rollup ADD PRIMARY KEY (sales_date, sales_rep_id, outlet_id, payment_type);
+CREATE INDEX idx_sales_daily_rollup_outlet_date ON sales_daily_rollup (outlet_id, sales_date);
+
+ALTER TABLE period_closes ADD COLUMN outlet_id smallint REFERENCES outlets;
+UPDATE period_closes c SET outlet_id = o.id FROM outlets o WHERE o.name = c.outlet;
+ALTER TABLE period_closes ALTER COLUMN outlet_id SET NOT NULL;
+
+ALTER TABLE sales_period_snapshots ADD COLUMN outlet_id smallint;
+UPDATE sales_period_snapshots p SET outlet_id = o.id FROM outlets o WHERE o.name = p.outlet;
+ALTER TABLE sales_period_snapshots ALTER COLUMN outlet_id SET NOT NULL;
+
+ALTER TABLE expense_period_snapshots ADD COLUMN outlet_id smallint;
+UPDATE expense_period_snapshots p SET outlet_id = o.id FROM outlets o WHERE o.name = p.outlet;
+ALTER TABLE expense_period_snapshots ALTER COLUMN outlet_id SET NOT NULL;
+
+-- Also drops the snapshots' foreign keys to period_closes
+ALTER TABLE period_closes DROP COLUMN outlet CASCADE;
+ALTER TABLE period_closes ADD PRIMARY KEY (outlet_id, period_start);
+CREATE INDEX idx_period_closes_outlet_end ON period_closes (outlet_id, period_end);
+
+ALTER TABLE sales_period_snapshots DROP COLUMN outlet;
+ALTER TABLE sales_period_snapshots ADD PRIMARY KEY (outlet_id, period_start, sales_rep_id, payment_type);
+ALTER TABLE sales_period_snapshots ADD FOREIGN KEY (outlet_id, period_start)
+    REFERENCES period_closes ON DELETE CASCADE;
+
+ALTER TABLE expense_period_snapshots DROP COLUMN outlet;
+CREATE UNIQUE INDEX idx_expense_period_snapshots_key
+    ON expense_period_snapshots (outlet_id, period_start, type, COALESCE(advance_to_id, 0));
+ALTER TABLE expense_period_snapshots ADD FOREIGN KEY (outlet_id, period_start)
+    REFERENCES period_closes ON DELETE CASCADE;
+
+
+-- Same checks as in V3, by outlet id
+CREATE FUNCTION assert_period_open(changed_outlet_id smallint, changed_day date) RETURNS void AS $$
+DECLARE
+    closed_through date;
+BEGIN
+    IF current_setting('showroom.moving_partition_rows', true) = 'on' THEN
+        RETURN;
+    END IF;
+
+    SELECT MAX(period_end) INTO closed_through FROM period_closes WHERE outlet_id = changed_outlet_id;
+    IF closed_through IS NOT NULL AND changed_day <= closed_through THEN
+        RAISE EXCEPTION 'Books of % are closed through %',
+                (SELECT name FROM outlets WHERE id = changed_outlet_id), closed_through
+            USING ERRCODE = 'SR001';
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION sales_entries_period_check() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM assert_period_open(OLD.outlet_id, CAST(OLD.date_time AS date));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM assert_period_open(NEW.outlet_id, CAST(NEW.date_time AS date));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION expense_entries_period_check() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM assert_period_open(OLD.outlet_id, OLD.date);
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM assert_period_open(NEW.outlet_id, NEW.date);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER sales_entries_period_check
+    AFTER INSERT OR UPDATE OR DELETE ON sales_entries
+    FOR EACH ROW EXECUTE FUNCTION sales_entries_period_check();
+
+CREATE TRIGGER expense_entries_period_check
+    AFTER INSERT OR UPDATE OR DELETE ON expense_entries
+    FOR EACH ROW EXECUTE FUNCTION expense_entries_period_check();
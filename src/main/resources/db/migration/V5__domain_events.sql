@@ -0,0 +1,43 @@
+-- Append-only journal of domain events (transactional outbox). Services add
+-- an event in the same transaction as the change it describes; the relay and
+-- GET /api/events read it in commit-safe order (see DomainEventRepository).
+--
+-- tx_id is the writing transaction. Events are read in (tx_id, id) order and
+-- only from transactions older than every running one, so an event that
+-- commits late can never land behind an offset a reader already passed.
+-- Needs PostgreSQL 13 or later for xid8.
+CREATE TABLE domain_events (
+    id bigint GENERATED ALWAYS AS IDENTITY,
+    tx_id xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    event_type varchar(50) NOT NULL,
+    aggregate_type varchar(50) NOT NULL,
+    aggregate_id bigint NOT NULL,
+    outlet_id smallint REFERENCES outlets,
+    payload jsonb NOT NULL,
+    created_at timestamp(6) NOT NULL DEFAULT localtimestamp,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_domain_events_tx_id ON domain_events (tx_id, id);
+
+CREATE FUNCTION reject_domain_event_change() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'domain_events is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER domain_events_append_only
+    BEFORE UPDATE OR DELETE ON domain_events
+    FOR EACH ROW EXECUTE FUNCTION reject_domain_event_change();
+
+CREATE TRIGGER domain_events_no_truncate
+    BEFORE TRUNCATE ON domain_events
+    FOR EACH STATEMENT EXECUTE FUNCTION reject_domain_event_change();
+
+-- How far the relay has published to each sink: the last event sent
+CREATE TABLE domain_event_offsets (
+    sink varchar(50) NOT NULL,
+    last_event_id bigint NOT NULL REFERENCES domain_events,
+    updated_at timestamp(6) NOT NULL,
+    PRIMARY KEY (sink)
+);
@@ -109,6 +109,7 @@ function logout() {
     // Clean up role restrictions before logout
     cleanupSalesRoleDateRestrictions();
     cleanupManagerRoleRestrictions();
+    disconnectDashboardStream();
 
     authToken = null;
     currentUser = null;
@@ -30,33 +30,40 @@ async function addExpense(event) {
 }
 
 // Load expense data
-async function loadExpenseData() {
-    try {
-        // UPDATED: Use new filter field IDs
-        const fromDate = document.getElementById('expenseFilterFromDate').value;
-        const toDate = document.getElementById('expenseFilterToDate').value;
-        const expenseTypeFilter = document.getElementById('expenseTypeFilterSelect')?.value || '';
-        const advanceToFilter = document.getElementById('advanceToFilterSelect')?.value || '';
-
-        let params = [];
-        if (fromDate) params.push(`fromDate=${fromDate}`);
-        if (toDate) params.push(`toDate=${toDate}`);
-        if (expenseTypeFilter) params.push(`type=${expenseTypeFilter}`);
-        if (advanceToFilter) params.push(`advanceToUsername=${encodeURIComponent(advanceToFilter)}`);
-
-        if (currentUser.role === 'OWNER' && ownerSelectedOutlet !== 'All Outlets') {
-            params.push(`outlet=${encodeURIComponent(ownerSelectedOutlet)}`);
-        }
+let expensesNextCursor = null;
+
+function buildExpenseFilterParams() {
+    // UPDATED: Use new filter field IDs
+    const fromDate = document.getElementById('expenseFilterFromDate').value;
+    const toDate = document.getElementById('expenseFilterToDate').value;
+    const expenseTypeFilter = document.getElementById('expenseTypeFilterSelect')?.value || '';
+    const advanceToFilter = document.getElementById('advanceToFilterSelect')?.value || '';
+
+    let params = [];
+    if (fromDate) params.push(`fromDate=${fromDate}`);
+    if (toDate) params.push(`toDate=${toDate}`);
+    if (expenseTypeFilter) params.push(`type=${expenseTypeFilter}`);
+    if (advanceToFilter) params.push(`advanceToUsername=${encodeURIComponent(advanceToFilter)}`);
+
+    if (currentUser.role === 'OWNER' && ownerSelectedOutlet !== 'All Outlets') {
+        params.push(`outlet=${encodeURIComponent(ownerSelectedOutlet)}`);
+    }
+    return params;
+}
 
-        const response = await apiCall(`/expenses?${params.join('&')}`);
+async function loadExpenseData(append = false) {
+    try {
+        const cursor = append ? expensesNextCursor : null;
+        const page = await apiCallPage(`/expenses?${buildExpenseFilterParams().join('&')}`, cursor);
 
-        if (response) {
-            const expenses = response;
+        if (page) {
             // UPDATED: Use new table ID
             const tbody = document.querySelector('#expenseRecordsTable tbody');
-            tbody.innerHTML = '';
+            if (!append) {
+                tbody.innerHTML = '';
+            }
 
-            expenses.forEach(expense => {
+            page.items.forEach(expense => {
                 const row = tbody.insertRow();
                 row.innerHTML = `
                     <td>${formatDate(expense.date)}</td>
@@ -67,6 +74,9 @@ async function loadExpenseData() {
                     <td><span class="outlet-indicator">${expense.outlet}</span></td>
                 `;
             });
+
+            expensesNextCursor = page.nextCursor;
+            document.getElementById('expensesLoadMoreBtn')?.classList.toggle('hidden', !expensesNextCursor);
         }
 
     } catch (error) {
@@ -78,35 +88,11 @@ async function loadExpenseData() {
 // Export expense data
 async function exportExpenseData() {
     try {
-        // UPDATED: Use new filter field IDs
-        const fromDate = document.getElementById('expenseFilterFromDate').value;
-        const toDate = document.getElementById('expenseFilterToDate').value;
-        const expenseTypeFilter = document.getElementById('expenseTypeFilterSelect')?.value || '';
-        const advanceToFilter = document.getElementById('advanceToFilterSelect')?.value || '';
-
-        let params = [];
-        if (fromDate) params.push(`fromDate=${fromDate}`);
-        if (toDate) params.push(`toDate=${toDate}`);
-        if (expenseTypeFilter) params.push(`type=${expenseTypeFilter}`);
-        if (advanceToFilter) params.push(`advanceToUsername=${encodeURIComponent(advanceToFilter)}`);
-
-        if (currentUser.role === 'OWNER' && ownerSelectedOutlet !== 'All Outlets') {
-            params.push(`outlet=${encodeURIComponent(ownerSelectedOutlet)}`);
-        }
-
-        const response = await apiCall(`/expenses?${params.join('&')}`);
-
-        if (response) {
-            const expenses = response;
+        const downloaded = await downloadExport(
+            `/expenses/export?${buildExpenseFilterParams().join('&')}`,
+            `expense_data_${new Date().toISOString().split('T')[0]}.csv`);
 
-            // Create CSV content
-            let csvContent = "Date,Type,Amount,Description,Advance To,Outlet\n";
-            expenses.forEach(expense => {
-                csvContent += `${formatDate(expense.date)},${expense.type.replace('_', ' ')},${expense.amount},"${expense.description || ''}",${expense.advanceToName || '-'},${expense.outlet}\n`;
-            });
-
-            // Download CSV
-            downloadCSV(csvContent, `expense_data_${new Date().toISOString().split('T')[0]}.csv`);
+        if (downloaded) {
             showAlert('Expense data exported successfully!', 'success');
         }
 
@@ -114,4 +100,4 @@ async function exportExpenseData() {
         console.error('Failed to export expense data:', error);
         showAlert('Failed to export expense data', 'error');
     }
-}
\ No newline at end of file
+}
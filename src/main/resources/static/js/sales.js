@@ -16,40 +16,139 @@ async function updateDashboard() {
 
         const statsResponse = await apiCall(`/sales/dashboard-stats?${params}`);
         if (statsResponse) {
-            const stats = statsResponse;
-            document.getElementById('totalSalesDisplay').textContent = formatCurrency(stats.totalSales);
-            document.getElementById('totalExpensesDisplay').textContent = formatCurrency(stats.totalExpenses);
-            document.getElementById('netProfitDisplay').textContent = formatCurrency(stats.netProfit);
-            document.getElementById('totalTransactionsDisplay').textContent = stats.totalTransactions || 0;
+            renderDashboardStats(statsResponse);
         }
 
         // Load recent sales for dashboard
-        const salesParams = params + `${params ? '&' : ''}`;
+        const salesParams = params + `${params ? '&' : ''}size=10`;
         const salesResponse = await apiCall(`/sales?${salesParams}`);
         if (salesResponse) {
             const recentSales = salesResponse.slice(0, 10);
             const tbody = document.querySelector('#dashboardSalesTable tbody');
             tbody.innerHTML = '';
 
-            recentSales.forEach(sale => {
-                const row = tbody.insertRow();
-                row.innerHTML = `
-                    <td>${formatDate(sale.dateTime)}</td>
-                    <td>${sale.salesRepName}</td>
-                    <td>${sale.billNumber}</td>
-                    <td>${formatCurrency(sale.amount)}</td>
-                    <td>${sale.paymentType}</td>
-                    <td><span class="outlet-indicator">${sale.outlet}</span></td>
-                `;
-            });
+            recentSales.forEach(sale => renderRecentSale(tbody.insertRow(), sale));
         }
 
+        // Keep the dashboard current without polling
+        connectDashboardStream(params);
+
     } catch (error) {
         console.error('Failed to update dashboard:', error);
         showAlert('Failed to update dashboard', 'error');
     }
 }
 
+function renderDashboardStats(stats) {
+    document.getElementById('totalSalesDisplay').textContent = formatCurrency(stats.totalSales);
+    document.getElementById('totalExpensesDisplay').textContent = formatCurrency(stats.totalExpenses);
+    document.getElementById('netProfitDisplay').textContent = formatCurrency(stats.netProfit);
+    document.getElementById('totalTransactionsDisplay').textContent = stats.totalTransactions || 0;
+}
+
+function renderRecentSale(row, sale) {
+    row.innerHTML = `
+        <td>${formatDate(sale.dateTime)}</td>
+        <td>${sale.salesRepName}</td>
+        <td>${sale.billNumber}</td>
+        <td>${formatCurrency(sale.amount)}</td>
+        <td>${sale.paymentType}</td>
+        <td><span class="outlet-indicator">${sale.outlet}</span></td>
+    `;
+}
+
+// Live dashboard updates (server-sent events). EventSource cannot send the
+// Authorization header, so the stream is read with fetch instead.
+let dashboardStream = null;
+
+function connectDashboardStream(params) {
+    if (dashboardStream && dashboardStream.params === params) {
+        return;
+    }
+    disconnectDashboardStream();
+
+    const controller = new AbortController();
+    dashboardStream = { params, controller };
+    readDashboardStream(params, controller.signal, 0);
+}
+
+function disconnectDashboardStream() {
+    if (dashboardStream) {
+        dashboardStream.controller.abort();
+        dashboardStream = null;
+    }
+}
+
+async function readDashboardStream(params, signal, retries) {
+    try {
+        const response = await fetch(`${API_BASE_URL}/stream/dashboard?${params}`, {
+            headers: {
+                'Accept': 'text/event-stream',
+                'Authorization': `Bearer ${localStorage.getItem('authToken')}`
+            },
+            signal
+        });
+
+        if (response.status === 401) {
+            logout();
+            return;
+        }
+        if (!response.ok) {
+            throw new Error(`Dashboard stream returned ${response.status}`);
+        }
+
+        retries = 0;
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+
+            buffer += value;
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                handleDashboardEvent(buffer.slice(0, end));
+                buffer = buffer.slice(end + 2);
+            }
+        }
+    } catch (error) {
+        if (signal.aborted) return;
+        console.warn('Dashboard stream interrupted:', error);
+    }
+
+    // The server closes streams after a while; reconnect with backoff
+    if (!signal.aborted) {
+        const delay = Math.min(30000, 1000 * 2 ** retries);
+        setTimeout(() => {
+            if (!signal.aborted) readDashboardStream(params, signal, retries + 1);
+        }, delay);
+    }
+}
+
+function handleDashboardEvent(block) {
+    let event = 'message';
+    const data = [];
+    block.split('\n').forEach(line => {
+        if (line.startsWith('event:')) {
+            event = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+            data.push(line.slice(5).replace(/^ /, ''));
+        }
+    });
+    if (data.length === 0) return; // heartbeat
+
+    const payload = JSON.parse(data.join('\n'));
+    if (event === 'stats') {
+        renderDashboardStats(payload);
+    } else if (event === 'sales') {
+        const tbody = document.querySelector('#dashboardSalesTable tbody');
+        payload.forEach(sale => renderRecentSale(tbody.insertRow(0), sale));
+        while (tbody.rows.length > 10) {
+            tbody.deleteRow(tbody.rows.length - 1);
+        }
+    }
+}
+
 // Sales entry functions
 async function addSalesEntry(event) {
     event.preventDefault();
@@ -121,31 +220,38 @@ function validateSalesForm() {
 }
 
 // Load sales data
-async function loadSalesData() {
-    try {
-        const fromDate = document.getElementById('salesFilterFromDate').value;
-        const toDate = document.getElementById('salesFilterToDate').value;
-        const salesRepFilter = document.getElementById('salesRepFilterSelect')?.value || '';
-        const paymentTypeFilter = document.getElementById('paymentTypeFilterSelect')?.value || '';
-
-        let params = [];
-        if (fromDate) params.push(`fromDate=${fromDate}T00:00:00`);
-        if (toDate) params.push(`toDate=${toDate}T23:59:59`);
-        if (salesRepFilter) params.push(`salesRepUsername=${encodeURIComponent(salesRepFilter)}`);
-        if (paymentTypeFilter) params.push(`paymentType=${paymentTypeFilter}`);
-
-        if (currentUser.role === 'OWNER' && ownerSelectedOutlet !== 'All Outlets') {
-            params.push(`outlet=${encodeURIComponent(ownerSelectedOutlet)}`);
-        }
+let salesNextCursor = null;
+
+function buildSalesFilterParams() {
+    const fromDate = document.getElementById('salesFilterFromDate').value;
+    const toDate = document.getElementById('salesFilterToDate').value;
+    const salesRepFilter = document.getElementById('salesRepFilterSelect')?.value || '';
+    const paymentTypeFilter = document.getElementById('paymentTypeFilterSelect')?.value || '';
+
+    let params = [];
+    if (fromDate) params.push(`fromDate=${fromDate}T00:00:00`);
+    if (toDate) params.push(`toDate=${toDate}T23:59:59`);
+    if (salesRepFilter) params.push(`salesRepUsername=${encodeURIComponent(salesRepFilter)}`);
+    if (paymentTypeFilter) params.push(`paymentType=${paymentTypeFilter}`);
+
+    if (currentUser.role === 'OWNER' && ownerSelectedOutlet !== 'All Outlets') {
+        params.push(`outlet=${encodeURIComponent(ownerSelectedOutlet)}`);
+    }
+    return params;
+}
 
-        const response = await apiCall(`/sales?${params.join('&')}`);
+async function loadSalesData(append = false) {
+    try {
+        const cursor = append ? salesNextCursor : null;
+        const page = await apiCallPage(`/sales?${buildSalesFilterParams().join('&')}`, cursor);
 
-        if (response) {
-            const sales = response;
+        if (page) {
             const tbody = document.querySelector('#salesRecordsTable tbody');
-            tbody.innerHTML = '';
+            if (!append) {
+                tbody.innerHTML = '';
+            }
 
-            sales.forEach(sale => {
+            page.items.forEach(sale => {
                 const row = tbody.insertRow();
                 const createdByCell = currentUser.role === 'OWNER' ?
                     `<td class="audit-info">${sale.createdBy || 'Unknown'}</td>` : '';
@@ -160,6 +266,9 @@ async function loadSalesData() {
                     ${createdByCell}
                 `;
             });
+
+            salesNextCursor = page.nextCursor;
+            document.getElementById('salesLoadMoreBtn')?.classList.toggle('hidden', !salesNextCursor);
         }
 
     } catch (error) {
@@ -171,34 +280,11 @@ async function loadSalesData() {
 // Export sales data
 async function exportSalesData() {
     try {
-        const fromDate = document.getElementById('salesFilterFromDate').value;
-        const toDate = document.getElementById('salesFilterToDate').value;
-        const salesRepFilter = document.getElementById('salesRepFilterSelect')?.value || '';
-        const paymentTypeFilter = document.getElementById('paymentTypeFilterSelect')?.value || '';
-
-        let params = [];
-        if (fromDate) params.push(`fromDate=${fromDate}T00:00:00`);
-        if (toDate) params.push(`toDate=${toDate}T23:59:59`);
-        if (salesRepFilter) params.push(`salesRepUsername=${encodeURIComponent(salesRepFilter)}`);
-        if (paymentTypeFilter) params.push(`paymentType=${paymentTypeFilter}`);
-
-        if (currentUser.role === 'OWNER' && ownerSelectedOutlet !== 'All Outlets') {
-            params.push(`outlet=${encodeURIComponent(ownerSelectedOutlet)}`);
-        }
-
-        const response = await apiCall(`/sales?${params.join('&')}`);
-
-        if (response) {
-            const sales = response;
-
-            // Create CSV content
-            let csvContent = "Date,Sales Rep,Bill Number,Amount,Payment Type,Outlet\n";
-            sales.forEach(sale => {
-                csvContent += `${formatDate(sale.dateTime)},${sale.salesRepName},${sale.billNumber},${sale.amount},${sale.paymentType},${sale.outlet}\n`;
-            });
+        const downloaded = await downloadExport(
+            `/sales/export?${buildSalesFilterParams().join('&')}`,
+            `sales_data_${new Date().toISOString().split('T')[0]}.csv`);
 
-            // Download CSV
-            downloadCSV(csvContent, `sales_data_${new Date().toISOString().split('T')[0]}.csv`);
+        if (downloaded) {
             showAlert('Sales data exported successfully!', 'success');
         }
 
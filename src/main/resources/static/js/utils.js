@@ -10,6 +10,8 @@ const API_BASE_URL = (() => {
 const OUTLETS = ['SKY_BLUE_WOMEN'];
 let ownerSelectedOutlet = 'All Outlets';
 
+const COLUMNS_JSON = 'application/vnd.showroom.columns+json';
+
 // Utility function to make authenticated API calls
 async function apiCall(endpoint, method = 'GET', data = null) {
     const config = {
@@ -50,6 +52,48 @@ async function apiCall(endpoint, method = 'GET', data = null) {
     }
 }
 
+// Fetch one page of a cursor-paginated listing
+async function apiCallPage(endpoint, cursor = null) {
+    const separator = endpoint.includes('?') ? '&' : '?';
+    const url = cursor ? `${endpoint}${separator}cursor=${encodeURIComponent(cursor)}` : endpoint;
+
+    // Listings come back column by column, which is much smaller on slow links
+    const config = { method: 'GET', headers: { 'Accept': `${COLUMNS_JSON}, application/json;q=0.9` } };
+    const authToken = localStorage.getItem('authToken');
+    if (authToken) {
+        config.headers['Authorization'] = `Bearer ${authToken}`;
+    }
+
+    const response = await fetch(`${API_BASE_URL}${url}`, config);
+
+    if (response.status === 401) {
+        logout();
+        return null;
+    }
+
+    const result = await response.json();
+
+    if (!response.ok) {
+        throw new Error(result.message || 'API call failed');
+    }
+
+    const columnar = (response.headers.get('Content-Type') || '').startsWith(COLUMNS_JSON);
+    const items = columnar ? decodeColumns(result) : result;
+    return { items, nextCursor: response.headers.get('X-Next-Cursor') };
+}
+
+// Rebuild row objects from {count, columns}; dictionary columns are {values, codes}
+function decodeColumns(table) {
+    const rows = Array.from({ length: table.count }, () => ({}));
+    Object.entries(table.columns).forEach(([name, column]) => {
+        const values = Array.isArray(column)
+            ? column
+            : column.codes.map(code => code === null ? null : column.values[code]);
+        values.forEach((value, i) => { rows[i][name] = value; });
+    });
+    return rows;
+}
+
 // Show alert messages
 function showAlert(message, type) {
     const alertDiv = document.createElement('div');
@@ -210,6 +254,36 @@ function downloadCSV(csvContent, filename) {
     window.URL.revokeObjectURL(url);
 }
 
+// Download a file produced by an authenticated API endpoint
+async function downloadExport(endpoint, filename) {
+    // Listings come back column by column, which is much smaller on slow links
+    const config = { method: 'GET', headers: { 'Accept': `${COLUMNS_JSON}, application/json;q=0.9` } };
+    const authToken = localStorage.getItem('authToken');
+    if (authToken) {
+        config.headers['Authorization'] = `Bearer ${authToken}`;
+    }
+
+    const response = await fetch(`${API_BASE_URL}${endpoint}`, config);
+
+    if (response.status === 401) {
+        logout();
+        return false;
+    }
+
+    if (!response.ok) {
+        throw new Error('Export failed');
+    }
+
+    const blob = await response.blob();
+    const url = window.URL.createObjectURL(blob);
+    const a = document.createElement('a');
+    a.href = url;
+    a.download = filename;
+    a.click();
+    window.URL.revokeObjectURL(url);
+    return true;
+}
+
 // Format currency
 function formatCurrency(amount) {
     return `₹${parseInt(amount || 0).toLocaleString()}`;
@@ -0,0 +1,148 @@
+package com.showroom.management.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two local H2 databases. The replica one stands in for a
+ * standby: the PostgreSQL functions of the lag query are defined on it and
+ * report whatever replay state a test sets.
+ */
+class ReadReplicaRoutingTest {
+
+    private static final long MAX_LAG_MS = 2000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HikariDataSource replica;
+    private ReadReplicaRouting routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        Standby.inRecovery = false;
+        Standby.replayTimestamp = OffsetDateTime.now();
+
+        HikariDataSource primary = pool("primary");
+        replica = pool("replica");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        for (String function : new String[]{"pg_is_in_recovery", "pg_last_wal_receive_lsn",
+                "pg_last_wal_replay_lsn", "pg_last_xact_replay_timestamp"}) {
+            replicaJdbc.execute("CREATE ALIAS " + function + " FOR \"" + Standby.class.getName() + "." + function + "\"");
+        }
+
+        routing = new ReadReplicaRouting(primary, replica, MAX_LAG_MS, 1000, meterRegistry);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing.dataSource());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseCaughtUpReplica() {
+        routing.checkReplica();
+
+        assertThat(replicaUsable()).isTrue();
+        assertThat(readOnlySite()).isEqualTo("replica");
+        assertThat(readWriteSite()).isEqualTo("primary");
+        assertThat(site()).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaConnectionFailureFallsBackToPrimary() {
+        routing.checkReplica();
+        replica.close();
+
+        assertThat(readOnlySite()).isEqualTo("primary");
+        assertThat(replicaUsable()).isFalse();
+    }
+
+    @Test
+    void lagAboveLimitReadsFromPrimary() {
+        Standby.inRecovery = true;
+        Standby.replayTimestamp = OffsetDateTime.now().minusSeconds(10);
+        routing.checkReplica();
+
+        assertThat(replicaUsable()).isFalse();
+        assertThat(readOnlySite()).isEqualTo("primary");
+
+        Standby.replayTimestamp = OffsetDateTime.now().minusNanos(MAX_LAG_MS * 1_000_000 / 4);
+        routing.checkReplica();
+
+        assertThat(replicaUsable()).isTrue();
+        assertThat(readOnlySite()).isEqualTo("replica");
+    }
+
+    private String readOnlySite() {
+        return readOnly.execute(status -> site());
+    }
+
+    private String readWriteSite() {
+        return readWrite.execute(status -> site());
+    }
+
+    private String site() {
+        return jdbcTemplate.queryForObject("SELECT name FROM site", String.class);
+    }
+
+    private boolean replicaUsable() {
+        return meterRegistry.get("showroom.datasource.replica.usable").gauge().value() == 1;
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(2);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE site (name VARCHAR(20))");
+        jdbc.update("INSERT INTO site VALUES (?)", name);
+        return dataSource;
+    }
+
+    // Replay state reported by the replica database
+    public static class Standby {
+
+        static volatile boolean inRecovery;
+        static volatile OffsetDateTime replayTimestamp;
+
+        public static boolean pg_is_in_recovery() {
+            return inRecovery;
+        }
+
+        // Always behind the replayed position, so the lag is measured
+        public static String pg_last_wal_receive_lsn() {
+            return "0/20";
+        }
+
+        public static String pg_last_wal_replay_lsn() {
+            return "0/10";
+        }
+
+        public static OffsetDateTime pg_last_xact_replay_timestamp() {
+            return replayTimestamp;
+        }
+    }
+}
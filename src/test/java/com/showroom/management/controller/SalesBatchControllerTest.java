@@ -0,0 +1,128 @@
+package com.showroom.management.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.showroom.management.dto.ApiResponse;
+import com.showroom.management.dto.SalesBatchResultDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.entity.User;
+import com.showroom.management.security.UserDetailsImpl;
+import com.showroom.management.service.SalesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Body parsing of {@code POST /api/sales/batch}; storing the rows is covered
+ * by the service's tests.
+ */
+class SalesBatchControllerTest {
+
+    private static final int MAX_ROWS = 3;
+
+    private final SalesService salesService = mock(SalesService.class);
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken(
+            new UserDetailsImpl(1L, "manager1", "x", "Manager One", "Outlet 1", User.Role.MANAGER, true, List.of()),
+            null, List.of());
+    private SalesController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new SalesController(salesService, null, null,
+                new ObjectMapper().registerModule(new JavaTimeModule()), null);
+        ReflectionTestUtils.setField(controller, "maxBatchRows", MAX_ROWS);
+        when(salesService.importSales(anyList(), anyString())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            return new SalesBatchResultDTO(rows.size(), rows.size(), 0, 0, List.of());
+        });
+    }
+
+    @Test
+    void readsNdjsonOneBillPerLine() {
+        ResponseEntity<?> response = post(bill("B1") + "\n" + bill("B2") + "\n");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<SalesEntryDTO> rows = importedRows();
+        assertThat(rows).extracting(SalesEntryDTO::getBillNumber).containsExactly("B1", "B2");
+        assertThat(rows.get(0).getDateTime()).isEqualTo(LocalDateTime.of(2024, 3, 10, 11, 0));
+        assertThat(rows.get(0).getAmount()).isEqualByComparingTo(new BigDecimal("25.50"));
+        assertThat(rows.get(0).getPaymentType()).isEqualTo(SalesEntry.PaymentType.CASH);
+        assertThat(message(response)).isEqualTo("2 of 2 sales entries created");
+    }
+
+    @Test
+    void readsJsonArray() {
+        ResponseEntity<?> response = post("[" + bill("B1") + "," + bill("B2") + "]");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(importedRows()).extracting(SalesEntryDTO::getBillNumber).containsExactly("B1", "B2");
+    }
+
+    @Test
+    void acceptsExactlyTheRowLimit() {
+        ResponseEntity<?> response = post(bill("B1") + "\n" + bill("B2") + "\n" + bill("B3"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(importedRows()).hasSize(MAX_ROWS);
+    }
+
+    @Test
+    void rejectsBodyOverRowLimitBeforeImporting() {
+        ResponseEntity<?> response = post(bill("B1") + "\n" + bill("B2") + "\n" + bill("B3") + "\n" + bill("B4"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(message(response)).isEqualTo("Batch exceeds " + MAX_ROWS + " rows");
+        verify(salesService, never()).importSales(anyList(), any());
+    }
+
+    @Test
+    void reportsRowOfMalformedLine() {
+        ResponseEntity<?> response = post(bill("B1") + "\n{\"billNumber\": \"B2\", \"amount\": \"lots\"}\n");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(message(response)).startsWith("Invalid batch body at row 1: ");
+        verify(salesService, never()).importSales(anyList(), any());
+    }
+
+    private ResponseEntity<?> post(String body) {
+        return controller.importSales(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), authentication);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SalesEntryDTO> importedRows() {
+        ArgumentCaptor<List<SalesEntryDTO>> rows = ArgumentCaptor.forClass(List.class);
+        verify(salesService).importSales(rows.capture(), eq("manager1"));
+        return rows.getValue();
+    }
+
+    private static String message(ResponseEntity<?> response) {
+        return ((ApiResponse) response.getBody()).getMessage();
+    }
+
+    private static String bill(String billNumber) {
+        return "{\"salesRepUsername\": \"sales1\", \"dateTime\": \"2024-03-10T11:00:00\", \"billNumber\": \""
+                + billNumber + "\", \"amount\": 25.50, \"paymentType\": \"CASH\"}";
+    }
+}
@@ -0,0 +1,74 @@
+package com.showroom.management.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 10, 11, 0, 5, 120_000_000), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(PageCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingTokenIsFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        for (String token : new String[]{"not a token!", encoded("2024-03-10T11:00"), encoded("yesterday|42"),
+                encoded("2024-03-10T11:00|forty-two")}) {
+            assertThatThrownBy(() -> PageCursor.decode(token))
+                    .as(token)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid page cursor");
+        }
+    }
+
+    @Test
+    void extraRowMeansNextPageFromLastItem() {
+        List<Long> ids = List.of(9L, 8L, 7L);
+
+        CursorPage<Long> page = CursorPage.of(ids, 2, Function.identity(),
+                id -> new PageCursor(LocalDateTime.of(2024, 3, 10, 11, 0), id));
+
+        assertThat(page.getItems()).containsExactly(9L, 8L);
+        assertThat(PageCursor.decode(page.getNextCursor()).getId()).isEqualTo(8L);
+    }
+
+    @Test
+    void fullLastPageHasNoNextCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(9L, 8L), 2, Function.identity(),
+                id -> new PageCursor(LocalDateTime.of(2024, 3, 10, 11, 0), id));
+
+        assertThat(page.getItems()).containsExactly(9L, 8L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void clampsPageSize() {
+        assertThat(CursorPage.clampPageSize(null)).isEqualTo(CursorPage.DEFAULT_PAGE_SIZE);
+        assertThat(CursorPage.clampPageSize(0)).isEqualTo(CursorPage.DEFAULT_PAGE_SIZE);
+        assertThat(CursorPage.clampPageSize(20)).isEqualTo(20);
+        assertThat(CursorPage.clampPageSize(10_000)).isEqualTo(CursorPage.MAX_PAGE_SIZE);
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package com.showroom.management.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementCounterTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        executor.setTaskDecorator(new MetricsConfig().sqlStatementCounterTaskDecorator());
+        executor.setCorePoolSize(1);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    void forkedTasksCountForTheSubmittingRequest() throws Exception {
+        SqlStatementCounter.start();
+        Future<?> forked = executor.submit(() -> {
+            for (int i = 0; i < 1000; i++) {
+                SqlStatementCounter.increment();
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            SqlStatementCounter.increment();
+        }
+        forked.get();
+
+        assertThat(SqlStatementCounter.stop()).isEqualTo(2000);
+    }
+
+    @Test
+    void workerThreadKeepsNoCountAfterTheTask() throws Exception {
+        SqlStatementCounter.start();
+        executor.submit(SqlStatementCounter::increment).get();
+        assertThat(SqlStatementCounter.stop()).isEqualTo(1);
+
+        // Not part of any request, so nothing is counted on the worker
+        assertThat(executor.submit(() -> {
+            SqlStatementCounter.increment();
+            return SqlStatementCounter.stop();
+        }).get()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.showroom.management.repository;
+
+import com.showroom.management.dto.PageCursor;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.service.OutletDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the filter queries built by {@link SqlQuery} are answered from
+ * the composite indexes declared on the entities rather than a table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // The migrations are PostgreSQL-only; H2 gets the schema from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Needed by the outlet converter of the entities
+@Import(OutletDictionary.class)
+class FilterQueryPlanTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        for (int outlet = 1; outlet <= 4; outlet++) {
+            jdbcTemplate.getJdbcTemplate().update(
+                    "INSERT INTO outlets (id, name) VALUES (?, ?)", outlet, "Outlet " + outlet);
+        }
+        jdbcTemplate.getJdbcTemplate().update(
+                "INSERT INTO users (username, password, full_name, role, outlet_id, is_active) " +
+                        "VALUES ('sales1', 'x', 'Sales One', 'SALES', 1, true)");
+        Long repId = jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT id FROM users WHERE username = 'sales1'", Long.class);
+
+        for (int i = 0; i < 200; i++) {
+            jdbcTemplate.getJdbcTemplate().update(
+                    "INSERT INTO sales_entries (id, sales_rep_id, outlet_id, date_time, bill_number, amount, payment_type, created_by) " +
+                            "VALUES (NEXT VALUE FOR sales_entries_seq, ?, ?, ?, ?, 100.00, ?, 'admin')",
+                    repId, i % 4 + 1, LocalDateTime.of(2024, 1, 1, 10, 0).plusHours(i),
+                    "B" + i, i % 2 == 0 ? "CASH" : "ACCOUNT");
+            jdbcTemplate.getJdbcTemplate().update(
+                    "INSERT INTO expense_entries (outlet_id, date, type, amount, created_by) VALUES (?, ?, ?, 50.00, 'admin')",
+                    i % 4 + 1, LocalDate.of(2024, 1, 1).plusDays(i % 30), i % 2 == 0 ? "TEA" : "LUNCH");
+        }
+    }
+
+    @Test
+    void outletSalesFilterUsesOutletDateIndex() {
+        SalesFilter filter = new SalesFilter((short) 1,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 23, 59, 59), null, null);
+
+        String plan = explain(SalesEntryQueriesImpl.filteredSalesQuery(filter, null));
+
+        assertThat(plan).containsIgnoringCase("idx_sales_entries_outlet_date_time");
+        assertThat(plan).doesNotContainIgnoringCase("SALES_ENTRIES.tableScan");
+    }
+
+    @Test
+    void salesRepFilterUsesSalesRepDateIndex() {
+        SalesFilter filter = new SalesFilter(null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), null, 1L, SalesEntry.PaymentType.CASH);
+
+        String plan = explain(SalesEntryQueriesImpl.filteredSalesQuery(
+                filter, new PageCursor(LocalDateTime.of(2024, 1, 5, 0, 0), 50L)));
+
+        assertThat(plan).containsIgnoringCase("idx_sales_entries_sales_rep_date_time");
+    }
+
+    @Test
+    void allOutletsSalesFilterUsesDateIndex() {
+        SalesFilter filter = new SalesFilter(null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 2, 0, 0), null, null);
+
+        String plan = explain(SalesEntryQueriesImpl.filteredSalesQuery(filter, null));
+
+        assertThat(plan).containsIgnoringCase("idx_sales_entries_date_time");
+    }
+
+    @Test
+    void outletExpenseFilterUsesOutletDateTypeIndex() {
+        ExpenseFilter filter = new ExpenseFilter((short) 2,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), ExpenseEntry.ExpenseType.TEA, null);
+
+        String plan = explain(ExpenseEntryQueriesImpl.filteredExpensesQuery(filter, null));
+
+        assertThat(plan).containsIgnoringCase("idx_expense_entries_outlet_date_type");
+        assertThat(plan).doesNotContainIgnoringCase("EXPENSE_ENTRIES.tableScan");
+    }
+
+    @Test
+    void absentFiltersAreNotEmitted() {
+        String sql = SalesEntryQueriesImpl.filteredSalesQuery(new SalesFilter(), null).sql();
+
+        assertThat(sql).doesNotContain("WHERE");
+        assertThat(sql).doesNotContain("IS NULL");
+    }
+
+    private String explain(SqlQuery query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query.sql(), query.params(), String.class));
+    }
+}
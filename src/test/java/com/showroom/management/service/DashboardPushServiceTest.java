@@ -0,0 +1,59 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.DashboardStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardPushServiceTest {
+
+    private static final DashboardStatsDTO STATS = new DashboardStatsDTO(BigDecimal.ZERO, BigDecimal.ZERO,
+            BigDecimal.ZERO, 0L, Map.of(), Map.of(), Map.of());
+
+    private final DashboardStatsService dashboardStatsService = mock(DashboardStatsService.class);
+    @SuppressWarnings("unchecked")
+    private final DashboardPushService pushService = new DashboardPushService(dashboardStatsService,
+            60_000, 10, 60_000, 10, mock(ObjectProvider.class));
+
+    @AfterEach
+    void tearDown() {
+        pushService.shutdown();
+    }
+
+    @Test
+    void changeCommittedWhileInitialStatsLoadIsPushed() {
+        when(dashboardStatsService.getOutletStats(eq("Outlet 1"), any(), any()))
+                .thenAnswer(invocation -> {
+                    // A sale commits after the snapshot was read but before it is sent
+                    pushService.outletChanged("Outlet 1");
+                    return STATS;
+                })
+                .thenReturn(STATS);
+
+        pushService.subscribe("Outlet 1", null, null, null, null);
+
+        verify(dashboardStatsService, timeout(5_000).times(2)).getOutletStats(eq("Outlet 1"), any(), any());
+    }
+
+    @Test
+    void changesOfOtherOutletsAreNotPushed() throws InterruptedException {
+        when(dashboardStatsService.getOutletStats(any(), any(), any())).thenReturn(STATS);
+
+        pushService.subscribe("Outlet 1", null, null, null, null);
+        pushService.outletChanged("Outlet 2");
+        Thread.sleep(200);
+
+        verify(dashboardStatsService, times(1)).getOutletStats(any(), any(), any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.ExpenseEntryDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.entity.ExpenseEntry;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.ExpenseEntryRepository;
+import com.showroom.management.repository.ExpenseFilter;
+import com.showroom.management.repository.SalesEntryRepository;
+import com.showroom.management.repository.SalesFilter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+
+    private final SalesEntryRepository salesEntryRepository = mock(SalesEntryRepository.class);
+    private final ExpenseEntryRepository expenseEntryRepository = mock(ExpenseEntryRepository.class);
+    private final ExportService exportService = new ExportService(salesEntryRepository, expenseEntryRepository);
+
+    @Test
+    void prefixesTextThatSpreadsheetsWouldEvaluate() throws IOException {
+        when(salesEntryRepository.streamFilteredSales(any())).thenReturn(Stream.of(
+                sale("=HYPERLINK(\"http://x\")", "+1", "-2", "@SUM(A1)"),
+                sale("\tTab", "Plain", "B-1", "a=b")));
+
+        String csv = exportSales();
+
+        assertThat(csv).isEqualTo("""
+                Date,Sales Rep,Bill Number,Amount,Payment Type,Outlet,Created By
+                2024-03-10 11:00:05,"'=HYPERLINK(""http://x"")",'+1,25.50,CASH,'-2,'@SUM(A1)
+                2024-03-10 11:00:05,'\tTab,Plain,25.50,CASH,B-1,a=b
+                """);
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        when(expenseEntryRepository.streamFilteredExpenses(any())).thenReturn(Stream.of(
+                expense("Tea, biscuits"), expense("The \"good\" tea"), expense("Line one\nline two"),
+                expense("Carriage\rreturn"), expense(null), expense("")));
+
+        String csv = exportExpenses();
+
+        assertThat(csv).isEqualTo("""
+                Date,Type,Amount,Description,Advance To,Outlet,Created By
+                2024-03-10,TEA,12.00,"Tea, biscuits",,Outlet 1,admin
+                2024-03-10,TEA,12.00,"The ""good"" tea",,Outlet 1,admin
+                2024-03-10,TEA,12.00,"Line one
+                line two",,Outlet 1,admin
+                2024-03-10,TEA,12.00,"Carriage\rreturn",,Outlet 1,admin
+                2024-03-10,TEA,12.00,,,Outlet 1,admin
+                2024-03-10,TEA,12.00,,,Outlet 1,admin
+                """);
+    }
+
+    @Test
+    void prefixedFormulaIsStillQuotedWhenItHasSeparators() throws IOException {
+        when(expenseEntryRepository.streamFilteredExpenses(any())).thenReturn(Stream.of(expense("=1,2")));
+
+        assertThat(exportExpenses()).endsWith("\n2024-03-10,TEA,12.00,\"'=1,2\",,Outlet 1,admin\n");
+    }
+
+    private String exportSales() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportSales(out, new SalesFilter());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String exportExpenses() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportExpenses(out, new ExpenseFilter());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static SalesEntryDTO sale(String salesRepName, String billNumber, String outlet, String createdBy) {
+        SalesEntryDTO dto = new SalesEntryDTO();
+        dto.setSalesRepName(salesRepName);
+        dto.setBillNumber(billNumber);
+        dto.setOutlet(outlet);
+        dto.setCreatedBy(createdBy);
+        dto.setDateTime(LocalDateTime.of(2024, 3, 10, 11, 0, 5));
+        dto.setAmount(new BigDecimal("25.50"));
+        dto.setPaymentType(SalesEntry.PaymentType.CASH);
+        return dto;
+    }
+
+    private static ExpenseEntryDTO expense(String description) {
+        ExpenseEntryDTO dto = new ExpenseEntryDTO();
+        dto.setDescription(description);
+        dto.setDate(LocalDate.of(2024, 3, 10));
+        dto.setType(ExpenseEntry.ExpenseType.TEA);
+        dto.setAmount(new BigDecimal("12.00"));
+        dto.setOutlet("Outlet 1");
+        dto.setCreatedBy("admin");
+        return dto;
+    }
+}
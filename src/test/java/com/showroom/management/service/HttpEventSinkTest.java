@@ -0,0 +1,78 @@
+package com.showroom.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.showroom.management.dto.DomainEventDTO;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Publishes to a local stub receiver.
+ */
+class HttpEventSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private volatile int status = 204;
+    private HttpServer server;
+    private HttpEventSink sink;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            received.add(exchange.getRequestHeaders().getFirst("Content-Type") + " "
+                    + exchange.getRequestHeaders().getFirst("X-First-Event-Id") + "-"
+                    + exchange.getRequestHeaders().getFirst("X-Last-Event-Id") + "\n"
+                    + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        sink = new HttpEventSink(objectMapper,
+                "http://localhost:" + server.getAddress().getPort() + "/events", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void postsBatchAsNdjson() throws Exception {
+        sink.publish(List.of(event(7L, "{\"id\":1}"), event(9L, "{\"id\":2}")));
+
+        assertThat(received).hasSize(1);
+        String[] lines = received.get(0).split("\n");
+        assertThat(lines[0]).isEqualTo("application/x-ndjson 7-9");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[1]).path("id").asLong()).isEqualTo(7L);
+        assertThat(objectMapper.readTree(lines[2]).path("payload").path("id").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void failsBatchOnErrorResponse() {
+        status = 503;
+
+        assertThatThrownBy(() -> sink.publish(List.of(event(1L, "{}"))))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    private static DomainEventDTO event(Long id, String payload) {
+        return new DomainEventDTO(id, "SALE_CREATED", "SALE", id, "Outlet 1", payload,
+                LocalDateTime.of(2026, 10, 17, 10, 0));
+    }
+}
@@ -0,0 +1,89 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.PivotRequest;
+import com.showroom.management.repository.PeriodCloseRepository;
+import com.showroom.management.repository.PivotRepository;
+import com.showroom.management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PivotServiceTest {
+
+    private static final LocalDate CLOSED_THROUGH = LocalDate.of(2024, 3, 31);
+
+    private final PivotRepository pivotRepository = mock(PivotRepository.class);
+    private final PeriodCloseRepository periodCloseRepository = mock(PeriodCloseRepository.class);
+    private final OutletDictionary outletDictionary = mock(OutletDictionary.class);
+    private PivotService pivotService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(outletDictionary.filterId(null)).thenReturn(null);
+        when(outletDictionary.filterId("Outlet 1")).thenReturn((short) 1);
+        when(outletDictionary.size()).thenReturn(2);
+        when(periodCloseRepository.findClosedThrough((short) 1)).thenReturn(CLOSED_THROUGH);
+        when(pivotRepository.find(any(), anyInt())).thenReturn(List.of(List.of(BigDecimal.TEN)));
+        pivotService = new PivotService(pivotRepository, periodCloseRepository, outletDictionary,
+                mock(UserRepository.class), mock(ObjectProvider.class), mock(TaskScheduler.class),
+                new SimpleMeterRegistry(), 100, 10, Duration.ofHours(1));
+    }
+
+    @Test
+    void pivotOfClosedDaysIsCached() {
+        PivotRequest request = request(CLOSED_THROUGH);
+
+        pivotService.pivot(request, "Outlet 1", null);
+        pivotService.pivot(request, "Outlet 1", null);
+
+        verify(pivotRepository, times(1)).find(any(), anyInt());
+    }
+
+    @Test
+    void pivotReachingPastTheCloseIsNotCached() {
+        PivotRequest request = request(CLOSED_THROUGH.plusDays(1));
+
+        pivotService.pivot(request, "Outlet 1", null);
+        pivotService.pivot(request, "Outlet 1", null);
+
+        verify(pivotRepository, times(2)).find(any(), anyInt());
+    }
+
+    @Test
+    void allOutletsPivotIsCachedOnlyOnceEveryOutletClosed() {
+        PivotRequest request = request(CLOSED_THROUGH);
+
+        pivotService.pivot(request, null, null);
+        pivotService.pivot(request, null, null);
+        verify(pivotRepository, times(2)).find(any(), anyInt());
+
+        when(periodCloseRepository.findClosedThroughAllOutlets()).thenReturn(CLOSED_THROUGH);
+        pivotService.pivot(request, null, null);
+        pivotService.pivot(request, null, null);
+        verify(pivotRepository, times(3)).find(any(), anyInt());
+    }
+
+    private static PivotRequest request(LocalDate toDate) {
+        PivotRequest request = new PivotRequest();
+        request.setSource(PivotRequest.Source.SALES);
+        request.setMeasures(List.of("sum"));
+        request.setFromDate(LocalDate.of(2024, 3, 1));
+        request.setToDate(toDate);
+        return request;
+    }
+}
@@ -0,0 +1,152 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.SalesBatchResultDTO;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.repository.SalesEntryRepository;
+import com.showroom.management.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link SalesService#importSales} against H2, with the caches and push
+ * services it notifies replaced by mocks.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // The migrations are PostgreSQL-only; H2 gets the schema from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Needed by the outlet converter of the entities
+@Import(OutletDictionary.class)
+class SalesImportTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 10, 11, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SalesEntryRepository salesEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutletDictionary outletDictionary;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final PeriodCloseService periodCloseService = mock(PeriodCloseService.class);
+    private SalesService salesService;
+
+    @BeforeEach
+    void setUp() {
+        for (int outlet = 1; outlet <= 2; outlet++) {
+            jdbcTemplate.update("INSERT INTO outlets (id, name) VALUES (?, ?)", outlet, "Outlet " + outlet);
+            jdbcTemplate.update("INSERT INTO users (username, password, full_name, role, outlet_id, is_active) " +
+                    "VALUES (?, 'x', ?, 'SALES', ?, true)", "sales" + outlet, "Sales " + outlet, outlet);
+        }
+        Long repId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'sales1'", Long.class);
+        jdbcTemplate.update("INSERT INTO sales_entries " +
+                "(id, sales_rep_id, outlet_id, date_time, bill_number, amount, payment_type, created_by) " +
+                "VALUES (NEXT VALUE FOR sales_entries_seq, ?, 1, ?, 'STORED', 10.00, 'CASH', 'admin')", repId, DAY);
+
+        when(periodCloseService.getClosedThrough()).thenReturn(Map.of());
+        salesService = new SalesService(salesEntryRepository, userRepository,
+                mock(SalesRollupService.class), mock(SalesLeaderboardService.class), mock(PivotService.class),
+                mock(DashboardStatsService.class), mock(BillNumberIndex.class), mock(DataVersionService.class),
+                mock(DashboardPushService.class), periodCloseService, outletDictionary,
+                mock(DomainEventService.class), entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void reportsEachRowAndSavesOnlyCreatedOnes() {
+        SalesBatchResultDTO result = salesService.importSales(List.of(
+                row("sales1", "B1", "25.00"),
+                row("sales1", "STORED", "30.00"),
+                row("nobody", "B2", "40.00"),
+                row("sales2", "B3", "0"),
+                row("sales2", "B4", "50.00")), "manager1");
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getInvalid()).isEqualTo(2);
+        assertThat(result.getRows()).extracting(SalesBatchResultDTO.RowResult::getStatus).containsExactly(
+                SalesBatchResultDTO.RowStatus.CREATED,
+                SalesBatchResultDTO.RowStatus.DUPLICATE,
+                SalesBatchResultDTO.RowStatus.INVALID,
+                SalesBatchResultDTO.RowStatus.INVALID,
+                SalesBatchResultDTO.RowStatus.CREATED);
+        assertThat(result.getRows().get(2).getMessage()).isEqualTo("Sales representative not found");
+        assertThat(result.getRows().get(3).getMessage()).isEqualTo("Amount must be greater than 0");
+
+        SalesBatchResultDTO.RowResult created = result.getRows().get(4);
+        assertThat(created.getIndex()).isEqualTo(4);
+        SalesEntry stored = salesEntryRepository.findById(created.getId()).orElseThrow();
+        assertThat(stored.getBillNumber()).isEqualTo("B4");
+        assertThat(stored.getOutlet()).isEqualTo("Outlet 2");
+        assertThat(stored.getCreatedBy()).isEqualTo("manager1");
+        assertThat(salesEntryRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void repeatedBillInOneUploadIsDuplicateAfterTheFirst() {
+        SalesBatchResultDTO result = salesService.importSales(List.of(
+                row("sales1", "B1", "25.00"),
+                row("sales2", "B1", "30.00")), "manager1");
+
+        assertThat(result.getRows()).extracting(SalesBatchResultDTO.RowResult::getStatus).containsExactly(
+                SalesBatchResultDTO.RowStatus.CREATED,
+                SalesBatchResultDTO.RowStatus.DUPLICATE);
+        assertThat(salesEntryRepository.existsByBillNumber("B1")).isTrue();
+        assertThat(salesEntryRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void rowsOnOrBeforeClosedDayOfTheirOutletAreInvalid() {
+        when(periodCloseService.getClosedThrough()).thenReturn(Map.of("Outlet 1", DAY.toLocalDate()));
+
+        SalesBatchResultDTO result = salesService.importSales(List.of(
+                row("sales1", "B1", "25.00"),
+                row("sales1", "B2", "25.00", DAY.plusDays(1)),
+                row("sales2", "B3", "25.00")), "manager1");
+
+        assertThat(result.getRows()).extracting(SalesBatchResultDTO.RowResult::getStatus).containsExactly(
+                SalesBatchResultDTO.RowStatus.INVALID,
+                SalesBatchResultDTO.RowStatus.CREATED,
+                SalesBatchResultDTO.RowStatus.CREATED);
+        assertThat(result.getRows().get(0).getMessage()).contains("Outlet 1").contains(LocalDate.of(2024, 3, 10).toString());
+        assertThat(salesEntryRepository.existsByBillNumber("B1")).isFalse();
+    }
+
+    private static SalesEntryDTO row(String salesRep, String billNumber, String amount) {
+        return row(salesRep, billNumber, amount, DAY);
+    }
+
+    private static SalesEntryDTO row(String salesRep, String billNumber, String amount, LocalDateTime dateTime) {
+        SalesEntryDTO dto = new SalesEntryDTO();
+        dto.setSalesRepUsername(salesRep);
+        dto.setBillNumber(billNumber);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setDateTime(dateTime);
+        dto.setPaymentType(SalesEntry.PaymentType.CASH);
+        return dto;
+    }
+}
@@ -0,0 +1,309 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.LeaderboardDTO;
+import com.showroom.management.entity.SalesEntry;
+import com.showroom.management.entity.User;
+import com.showroom.management.repository.SalesDailyRollupRepository;
+import com.showroom.management.repository.SalesEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against an in-memory stand-in for the database: the rollup query and
+ * the bill lookup of a refresh read one snapshot of the committed sales, as
+ * its REPEATABLE READ transaction does.
+ */
+class SalesLeaderboardServiceTest {
+
+    private static final int SALES_REPS = 6;
+
+    private final List<SalesEntry> committed = new ArrayList<>();
+    private final ThreadLocal<List<SalesEntry>> snapshot = new ThreadLocal<>();
+    private final List<User> salesReps = new ArrayList<>();
+    private final AtomicInteger billNumbers = new AtomicInteger();
+    private final SalesDailyRollupRepository rollupRepository = mock(SalesDailyRollupRepository.class);
+    private final SalesEntryRepository salesEntryRepository = mock(SalesEntryRepository.class);
+    private final OutletDictionary outletDictionary = mock(OutletDictionary.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        for (long id = 1; id <= SALES_REPS; id++) {
+            User salesRep = new User();
+            salesRep.setId(id);
+            salesRep.setUsername("sales" + id);
+            salesRep.setFullName("Sales Rep " + id);
+            salesRep.setOutlet("Outlet " + (id % 2 + 1));
+            salesReps.add(salesRep);
+        }
+
+        when(outletDictionary.nameOf(any())).thenAnswer(invocation -> "Outlet " + invocation.getArgument(0));
+        when(rollupRepository.sumBySalesRepsPerDay(any(), any())).thenAnswer(invocation -> {
+            List<SalesEntry> seen;
+            synchronized (committed) {
+                seen = List.copyOf(committed);
+            }
+            snapshot.set(seen);
+            // Leaves time for sales to commit while the boards load
+            Thread.sleep(1);
+            return rollup(seen, invocation.getArgument(0), invocation.getArgument(1));
+        });
+        when(salesEntryRepository.findExistingBillNumbers(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> wanted = invocation.getArgument(0);
+            Set<String> existing = new HashSet<>();
+            for (SalesEntry salesEntry : snapshot.get()) {
+                if (wanted.contains(salesEntry.getBillNumber())) {
+                    existing.add(salesEntry.getBillNumber());
+                }
+            }
+            return existing;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void salesCommittedDuringRefreshAreCountedOnce() throws Exception {
+        SalesLeaderboardService service = newService();
+        service.refresh();
+
+        // A refresh replaces the boards, so each round checks the one it raced
+        for (int round = 0; round < 30; round++) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                tasks.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 10; i++) {
+                        List<SalesEntry> sales = new ArrayList<>();
+                        for (int n = random.nextInt(1, 4); n > 0; n--) {
+                            sales.add(sale(salesReps.get(random.nextInt(SALES_REPS)), today, random.nextInt(1, 500)));
+                        }
+                        runTransaction(service, sales, random.nextInt(10) > 0);
+                    }
+                    return null;
+                }));
+            }
+            tasks.add(executor.submit(() -> {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(10_000_000));
+                service.refresh();
+                return null;
+            }));
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+
+            SalesLeaderboardService fresh = newService();
+            fresh.refresh();
+            assertThat(boards(service)).as("round %d", round).isEqualTo(boards(fresh));
+        }
+        assertThat(boards(service).get("MONTH All Outlets").getEntries()).isNotEmpty();
+    }
+
+    @Test
+    void salesCountOnlyInBoardsOfTheirOutletAndPeriod() {
+        SalesLeaderboardService service = newService();
+        LocalDate weekStart = SalesLeaderboardService.Period.WEEK.start(today);
+        LocalDate monthStart = SalesLeaderboardService.Period.MONTH.start(today);
+        User outlet1Rep = salesReps.get(1);
+        User outlet2Rep = salesReps.get(0);
+
+        service.recordSale(sale(outlet1Rep, today, 100));
+        service.recordSale(sale(outlet2Rep, today, 50));
+        service.recordSale(sale(outlet2Rep, weekStart.minusDays(1), 20));
+        service.recordSale(sale(outlet1Rep, monthStart.minusDays(1), 1000));
+
+        assertThat(totals(service, SalesLeaderboardService.Period.TODAY, "Outlet 1"))
+                .containsExactly("sales2 100.00 1");
+        assertThat(totals(service, SalesLeaderboardService.Period.TODAY, "Outlet 2"))
+                .containsExactly("sales1 50.00 1");
+        assertThat(totals(service, SalesLeaderboardService.Period.TODAY, null))
+                .containsExactly("sales2 100.00 1", "sales1 50.00 1");
+        assertThat(totals(service, SalesLeaderboardService.Period.WEEK, null))
+                .containsExactly("sales2 100.00 1", "sales1 50.00 1");
+
+        // The day before this week is still this month unless the week started it
+        List<String> month = totals(service, SalesLeaderboardService.Period.MONTH, null);
+        if (weekStart.isAfter(monthStart)) {
+            assertThat(month).containsExactly("sales2 100.00 1", "sales1 70.00 2");
+        } else {
+            assertThat(month).containsExactly("sales2 100.00 1", "sales1 50.00 1");
+        }
+        assertThat(totals(service, SalesLeaderboardService.Period.MONTH, "Outlet 3")).isEmpty();
+    }
+
+    @Test
+    void equalTotalsRankByBillsThenSalesRepId() {
+        SalesLeaderboardService service = newService();
+
+        service.recordSale(sale(salesReps.get(2), today, 60));
+        service.recordSale(sale(salesReps.get(0), today, 60));
+        service.recordSale(sale(salesReps.get(4), today, 30));
+        service.recordSale(sale(salesReps.get(4), today, 30));
+
+        LeaderboardDTO board = service.getLeaderboard(SalesLeaderboardService.Period.TODAY, null, 2);
+
+        assertThat(totals(service, SalesLeaderboardService.Period.TODAY, null))
+                .containsExactly("sales5 60.00 2", "sales1 60.00 1", "sales3 60.00 1");
+        assertThat(board.getEntries()).extracting(LeaderboardDTO.Entry::getRank).containsExactly(1, 2);
+    }
+
+    private SalesLeaderboardService newService() {
+        return new SalesLeaderboardService(rollupRepository, salesEntryRepository, outletDictionary,
+                mock(PlatformTransactionManager.class));
+    }
+
+    /**
+     * Records the sales as a service call would, then commits or rolls back.
+     */
+    private void runTransaction(SalesLeaderboardService service, List<SalesEntry> sales, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recordSales(sales);
+            if (commit) {
+                synchronized (committed) {
+                    committed.addAll(sales);
+                }
+                // A refresh may load the sales before the commit is reported
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(10_000_000));
+            }
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(commit
+                        ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private SalesEntry sale(User salesRep, LocalDate date, int amount) {
+        SalesEntry salesEntry = new SalesEntry();
+        salesEntry.setSalesRep(salesRep);
+        salesEntry.setOutlet(salesRep.getOutlet());
+        salesEntry.setDateTime(date.atTime(12, 0));
+        salesEntry.setBillNumber("B" + billNumbers.incrementAndGet());
+        salesEntry.setAmount(BigDecimal.valueOf(amount));
+        salesEntry.setPaymentType(SalesEntry.PaymentType.CASH);
+        return salesEntry;
+    }
+
+    private Map<String, LeaderboardDTO> boards(SalesLeaderboardService service) {
+        Map<String, LeaderboardDTO> boards = new HashMap<>();
+        for (SalesLeaderboardService.Period period : SalesLeaderboardService.Period.values()) {
+            for (String outlet : new String[]{null, "Outlet 1", "Outlet 2"}) {
+                LeaderboardDTO board = service.getLeaderboard(period, outlet, SALES_REPS);
+                boards.put(period + " " + board.getOutlet(), board);
+            }
+        }
+        return boards;
+    }
+
+    private static List<String> totals(SalesLeaderboardService service, SalesLeaderboardService.Period period,
+                                       String outlet) {
+        return service.getLeaderboard(period, outlet, SALES_REPS).getEntries().stream()
+                .map(entry -> entry.getSalesRepUsername() + " " + entry.getTotalSales() + " " + entry.getTransactions())
+                .toList();
+    }
+
+    private static List<SalesDailyRollupRepository.DailySalesRepTotals> rollup(List<SalesEntry> sales,
+                                                                               LocalDate fromDate, LocalDate toDate) {
+        Map<List<Object>, RollupRow> rows = new HashMap<>();
+        for (SalesEntry salesEntry : sales) {
+            LocalDate date = salesEntry.getDateTime().toLocalDate();
+            if (date.isBefore(fromDate) || !date.isBefore(toDate)) {
+                continue;
+            }
+            User salesRep = salesEntry.getSalesRep();
+            short outletId = Short.parseShort(salesEntry.getOutlet().substring("Outlet ".length()));
+            rows.computeIfAbsent(List.of(date, outletId, salesRep.getId()),
+                            key -> new RollupRow(date, outletId, salesRep))
+                    .add(salesEntry.getAmount());
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static final class RollupRow implements SalesDailyRollupRepository.DailySalesRepTotals {
+        private final LocalDate salesDate;
+        private final short outletId;
+        private final User salesRep;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private long transactionCount;
+
+        RollupRow(LocalDate salesDate, short outletId, User salesRep) {
+            this.salesDate = salesDate;
+            this.outletId = outletId;
+            this.salesRep = salesRep;
+        }
+
+        void add(BigDecimal amount) {
+            totalAmount = totalAmount.add(amount);
+            transactionCount++;
+        }
+
+        @Override
+        public LocalDate getSalesDate() {
+            return salesDate;
+        }
+
+        @Override
+        public Short getOutletId() {
+            return outletId;
+        }
+
+        @Override
+        public Long getSalesRepId() {
+            return salesRep.getId();
+        }
+
+        @Override
+        public String getSalesRepUsername() {
+            return salesRep.getUsername();
+        }
+
+        @Override
+        public String getSalesRepName() {
+            return salesRep.getFullName();
+        }
+
+        @Override
+        public BigDecimal getTotalAmount() {
+            return totalAmount;
+        }
+
+        @Override
+        public Long getTransactionCount() {
+            return transactionCount;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.showroom.management.service;
+
+import com.showroom.management.dto.CursorPage;
+import com.showroom.management.dto.SalesEntryDTO;
+import com.showroom.management.repository.SalesEntryRepository;
+import com.showroom.management.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keyset pagination of the sales listing against H2. Sales share timestamps
+ * in groups of five, so most pages end inside a group.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // The migrations are PostgreSQL-only; H2 gets the schema from the entities
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Needed by the outlet converter of the entities
+@Import(OutletDictionary.class)
+class SalesListingTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 3, 10, 11, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SalesEntryRepository salesEntryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutletDictionary outletDictionary;
+    @Autowired
+    private EntityManager entityManager;
+
+    private SalesService salesService;
+    private Long rep1Id;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO outlets (id, name) VALUES (1, 'Outlet 1')");
+        for (int rep = 1; rep <= 2; rep++) {
+            jdbcTemplate.update("INSERT INTO users (username, password, full_name, role, outlet_id, is_active) " +
+                    "VALUES (?, 'x', ?, 'SALES', 1, true)", "sales" + rep, "Sales " + rep);
+        }
+        rep1Id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'sales1'", Long.class);
+        Long rep2Id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'sales2'", Long.class);
+
+        for (int i = 0; i < 33; i++) {
+            jdbcTemplate.update("INSERT INTO sales_entries " +
+                            "(id, sales_rep_id, outlet_id, date_time, bill_number, amount, payment_type, created_by) " +
+                            "VALUES (NEXT VALUE FOR sales_entries_seq, ?, 1, ?, ?, 10.00, 'CASH', 'admin')",
+                    i % 3 == 0 ? rep2Id : rep1Id, FIRST.plusMinutes(i / 5), "B" + i);
+        }
+
+        salesService = new SalesService(salesEntryRepository, userRepository,
+                mock(SalesRollupService.class), mock(SalesLeaderboardService.class), mock(PivotService.class),
+                mock(DashboardStatsService.class), mock(BillNumberIndex.class), mock(DataVersionService.class),
+                mock(DashboardPushService.class), mock(PeriodCloseService.class), outletDictionary,
+                mock(DomainEventService.class), entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void pagesVisitEveryRowOnceAcrossEqualTimestamps() {
+        for (int pageSize : new int[]{1, 3, 4, 5, 7, 33, 50}) {
+            List<Long> ids = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<SalesEntryDTO> page = salesService.getFilteredSales(null, null, null, null, null,
+                        cursor, pageSize);
+                assertThat(page.getItems()).hasSizeLessThanOrEqualTo(pageSize);
+                page.getItems().forEach(sale -> ids.add(sale.getId()));
+                // Fails here rather than looping when a cursor does not advance
+                assertThat(ids).doesNotHaveDuplicates();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(ids).as("page size %d", pageSize).isEqualTo(expectedIds(null));
+        }
+    }
+
+    @Test
+    void salesRepPagesOnlyContainOwnSales() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<SalesEntryDTO> page = salesService.getSalesForUser(rep1Id, "SALES", "Outlet 1",
+                    null, null, cursor, 4);
+            for (SalesEntryDTO sale : page.getItems()) {
+                assertThat(sale.getSalesRepUsername()).isEqualTo("sales1");
+                ids.add(sale.getId());
+            }
+            assertThat(ids).doesNotHaveDuplicates();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).isEqualTo(expectedIds(rep1Id));
+    }
+
+    @Test
+    void salesRepWithoutIdGetsNoListing() {
+        assertThatThrownBy(() -> salesService.getSalesForUser(null, "SALES", "Outlet 1", null, null, null, 10))
+                .hasMessage("Sales representative not found");
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThatThrownBy(() -> salesService.getFilteredSales(null, null, null, null, null, "bm90IGEgY3Vyc29y", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid page cursor");
+    }
+
+    private List<Long> expectedIds(Long salesRepId) {
+        return jdbcTemplate.queryForList("SELECT id FROM sales_entries WHERE ? IS NULL OR sales_rep_id = ? " +
+                "ORDER BY date_time DESC, id DESC", Long.class, salesRepId, salesRepId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.showroom.management.service;
+
+import com.showroom.management.repository.SalesDailyRollupRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SalesRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+    private static final LocalTime LAST_INSTANT = LocalTime.of(23, 59, 59, 999_999_000);
+
+    private final SalesRollupService service = new SalesRollupService(mock(SalesDailyRollupRepository.class),
+            mock(PivotService.class), mock(OutletDictionary.class));
+
+    @Test
+    void wholeDaysComeFromRollupOnly() {
+        SalesRollupService.RangeSplit split = service.split(DAY.atStartOfDay(), DAY.plusDays(2).atTime(LAST_INSTANT));
+
+        assertRollup(split, DAY, DAY.plusDays(2));
+        assertEmpty(split.getHeadFrom(), split.getHeadTo());
+        assertEmpty(split.getTailFrom(), split.getTailTo());
+    }
+
+    @Test
+    void partialEdgeDaysAreScanned() {
+        LocalDateTime from = DAY.atTime(14, 30);
+        LocalDateTime to = DAY.plusDays(3).atTime(9, 15);
+
+        SalesRollupService.RangeSplit split = service.split(from, to);
+
+        assertRollup(split, DAY.plusDays(1), DAY.plusDays(2));
+        assertThat(split.getHeadFrom()).isEqualTo(from);
+        assertThat(split.getHeadTo()).isEqualTo(DAY.atTime(LAST_INSTANT));
+        assertThat(split.getTailFrom()).isEqualTo(DAY.plusDays(3).atStartOfDay());
+        assertThat(split.getTailTo()).isEqualTo(to);
+    }
+
+    @Test
+    void onlyTheRaggedEdgeIsScanned() {
+        SalesRollupService.RangeSplit headOnly = service.split(DAY.atTime(0, 0, 1),
+                DAY.plusDays(1).atTime(LAST_INSTANT));
+        assertRollup(headOnly, DAY.plusDays(1), DAY.plusDays(1));
+        assertThat(headOnly.getHeadFrom()).isEqualTo(DAY.atTime(0, 0, 1));
+        assertEmpty(headOnly.getTailFrom(), headOnly.getTailTo());
+
+        // One microsecond short of the day's end leaves the day to the scan
+        LocalDateTime almostMidnight = DAY.plusDays(1).atTime(23, 59, 59, 999_998_000);
+        SalesRollupService.RangeSplit tailOnly = service.split(DAY.atStartOfDay(), almostMidnight);
+        assertRollup(tailOnly, DAY, DAY);
+        assertEmpty(tailOnly.getHeadFrom(), tailOnly.getHeadTo());
+        assertThat(tailOnly.getTailFrom()).isEqualTo(DAY.plusDays(1).atStartOfDay());
+        assertThat(tailOnly.getTailTo()).isEqualTo(almostMidnight);
+    }
+
+    @Test
+    void rangeWithoutWholeDayIsScannedAsOneWindow() {
+        for (LocalDateTime[] range : new LocalDateTime[][]{
+                {DAY.atTime(9, 0), DAY.atTime(18, 0)},
+                {DAY.atTime(12, 0), DAY.plusDays(1).atTime(11, 0)},
+                {DAY.atStartOfDay(), DAY.atTime(23, 0)}}) {
+            SalesRollupService.RangeSplit split = service.split(range[0], range[1]);
+
+            assertThat(split.getRollupFrom()).isAfter(split.getRollupTo());
+            assertThat(split.getHeadFrom()).isEqualTo(range[0]);
+            assertThat(split.getHeadTo()).isEqualTo(range[1]);
+            assertEmpty(split.getTailFrom(), split.getTailTo());
+        }
+    }
+
+    private static void assertRollup(SalesRollupService.RangeSplit split, LocalDate from, LocalDate to) {
+        assertThat(split.getRollupFrom()).isEqualTo(from);
+        assertThat(split.getRollupTo()).isEqualTo(to);
+    }
+
+    private static void assertEmpty(LocalDateTime from, LocalDateTime to) {
+        assertThat(from).isAfter(to);
+    }
+}